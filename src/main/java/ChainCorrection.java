@@ -0,0 +1,118 @@
+import com.quimify.organic.components.Group;
+import com.quimify.organic.components.Substituent;
+import com.quimify.organic.molecules.openchain.OpenChain;
+import com.quimify.organic.molecules.openchain.Simple;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChainCorrection {
+
+    // Settings:
+
+    private static final int maximumDepth = 640;
+    private static final int depthStep = 40;
+
+    private static final int warmUpRounds = 3;
+    private static final int measuredRounds = 20;
+
+    // Corpus:
+
+    // Input sequences like in StructureToName (group ordinals, -1 for carbons, radicals followed by iso and carbons),
+    // with the names they had before correcting chains in linear time:
+
+    private static final String[][] corpus = {
+            {"17 0 12 -1 17 0 8", "docos-9-ino"},
+            {"18 17 0 9 18 17 0 2", "dodecano"},
+            {"18 17 1 4 17 0 14 16", "2-metil-4-yodooctadecano"},
+            {"17 0 4 -1 17 0 1", "hept-2-ino"},
+            {"17 0 2 18 17 0 6 17 1 7", "7-etil-2-metiltridecano"},
+            {"18 17 0 10 17 1 13 17 0 7", "13-heptil-2-metiltricosano"},
+            {"17 1 8 17 0 14 16 18", "2-metil-8-yododocosano"},
+            {"17 0 9 -1 7", "undec-1-in-1-ol"},
+            {"17 0 14 17 0 11 -1 13 17 0 11", "12-bromo-13-undecilheptacos-12-eno"},
+            {"17 0 2 17 0 5 17 0 4 18", "5-etildecano"},
+            {"17 1 4 -1 17 0 3", "2-metiloct-4-ino"},
+            {"17 1 9 17 0 5 18 17 0 5", "2-metil-9-pentiltetradecano"},
+            {"17 0 12 17 0 12 17 0 11 17 0 1", "13-metil-13-undecilpentacosano"},
+            {"18 -1 17 0 3", "pent-1-ino"},
+            {"12 18 17 0 13 17 0 5", "6-nitrononadecano"},
+            {"13 17 0 14 17 0 10 14", "11-bromo-11-cloropentacosano"},
+            {"17 0 2 13 17 1 3 17 0 5", "3-bromo-3-etil-2-metiloctano"},
+            {"18 -1 17 1 12", "12-metiltridec-1-ino"},
+            {"17 0 5 -1 -1 17 0 9 -1 18 17 1 9", "16-metil-8-nonilheptadec-8-en-6-ino"},
+            {"17 0 8 9 17 0 4 17 0 4 18 18 18", "1,1-dibutilnonil metil éter"},
+            {"17 0 6 17 1 10 9 17 0 1 -1 17 0 7", "1-hexil-1,9-dimetildecil non-1-inil éter"},
+            {"9 17 0 9 18 17 0 3 -1 -1 17 1 11 18 18", "1-propildecil 12-metiltridec-1-inil éter"},
+    };
+
+    public static void main(String[] args) {
+        System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+        int failures = 0;
+
+        for (String[] entry : corpus) {
+            OpenChain openChain = Runners.replay(entry[0]);
+            openChain.standardize();
+
+            if (!openChain.getName().equals(entry[1])) {
+                System.out.println("Expected " + entry[1] + " but got " + openChain.getName() + " for: " + entry[0]);
+                failures++;
+            }
+        }
+
+        System.out.println("Corpus:\t" + (corpus.length - failures) + "/" + corpus.length + " names kept");
+        System.out.println();
+
+        // Deep radical stacks:
+
+        for (int i = 0; i < warmUpRounds; i++)
+            for (int depth = depthStep; depth <= maximumDepth; depth += depthStep)
+                timeStandardizing(depth);
+
+        System.out.println("Depth\tµs\tns/depth");
+
+        for (int depth = depthStep; depth <= maximumDepth; depth += depthStep) {
+            long nanos = timeStandardizing(depth);
+            System.out.println(depth + "\t" + nanos / 1000 + "\t" + nanos / depth);
+        }
+    }
+
+    // Private:
+
+    private static long timeStandardizing(int depth) {
+        List<OpenChain> openChains = new ArrayList<>();
+
+        for (int i = 0; i < measuredRounds; i++)
+            openChains.add(stackedRadicalsOf(depth)); // Built beforehand, as standardizing modifies them
+
+        long startNanos = System.nanoTime();
+
+        for (OpenChain openChain : openChains)
+            openChain.standardize();
+
+        return (System.nanoTime() - startNanos) / measuredRounds;
+    }
+
+    private static OpenChain stackedRadicalsOf(int depth) {
+        // CH2(R1)-CH(R2)-CH(R3)-...-CH(Rn)-CH3, with ever longer radicals, so the main chain keeps turning into them
+        OpenChain openChain = new Simple();
+
+        openChain = openChain.bond(Group.hydrogen);
+        openChain = openChain.bond(Group.hydrogen);
+
+        for (int i = 1; i <= depth; i++) {
+            openChain = openChain.bond(Substituent.radical(i, i >= 3 && i % 2 == 1));
+            openChain.bondCarbon();
+            openChain = openChain.bond(Group.hydrogen);
+        }
+
+        openChain = openChain.bond(Group.hydrogen);
+        openChain = openChain.bond(Group.hydrogen);
+
+        return openChain;
+    }
+
+}
@@ -0,0 +1,162 @@
+import com.quimify.organic.Organic;
+import com.quimify.organic.OrganicFactory;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+public class ChainScaling {
+
+    // Settings:
+
+    private static final int maximumCarbons = 999;
+    private static final int carbonStep = 10;
+    private static final int printPeriod = 100;
+
+    private static final int warmUpRounds = 20;
+    private static final int measuredRounds = 15;
+
+    private static final long smallStackSize = 1 << 16; // 64 KB, the JVM may round it up to its minimum
+
+    // Shapes, as SMILES of about as many carbons as given:
+
+    private static final String[] shapeNames = {"Straight", "Branched", "Stacked radicals", "Ether"};
+
+    private static final IntFunction<?>[] shapes = {
+            ChainScaling::straightChainOf,
+            ChainScaling::branchedChainOf,
+            ChainScaling::stackedRadicalsOf,
+            ChainScaling::etherOf
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+        // Long chains on a small stack:
+
+        int convertedCount = 0;
+
+        for (int i = 0; i < shapes.length; i++)
+            if (convertsWithSmallStack(i))
+                convertedCount++;
+            else System.out.println(shapeNames[i] + " chain of " + maximumCarbons + " carbons didn't convert.");
+
+        System.out.println("Small stack:\t" + convertedCount + "/" + shapes.length + " shapes of " + maximumCarbons
+                + " carbons converted");
+
+        // Warming up every shape and size first, so the JIT doesn't skew the smallest ones:
+
+        for (int round = 0; round < warmUpRounds; round++)
+            for (int i = 0; i < shapes.length; i++)
+                for (int carbons = carbonStep; carbons <= maximumCarbons; carbons += carbonStep)
+                    convert(smilesOf(i, carbons));
+
+        for (int i = 0; i < shapes.length; i++) {
+            System.out.println();
+            System.out.println(shapeNames[i] + ":");
+            System.out.println("Carbons\tµs\tKB\tns/carbon\tB/carbon");
+
+            int sampleCount = maximumCarbons / carbonStep;
+            double[] carbonCounts = new double[sampleCount];
+            double[] nanos = new double[sampleCount];
+
+            for (int sample = 0; sample < sampleCount; sample++) {
+                int carbons = carbonStep * (sample + 1);
+                String smiles = smilesOf(i, carbons);
+                long[] bytesAndNanos = Runners.measure(() -> convert(smiles), measuredRounds);
+
+                carbonCounts[sample] = carbons;
+                nanos[sample] = bytesAndNanos[1];
+
+                if (carbons % printPeriod == 0 || sample == 0)
+                    System.out.println(carbons + "\t" + bytesAndNanos[1] / 1000 + "\t" + bytesAndNanos[0] / 1024
+                            + "\t" + bytesAndNanos[1] / carbons + "\t" + bytesAndNanos[0] / carbons);
+            }
+
+            // Linear time keeps the cost of each extra carbon flat, so both halves should be alike:
+            int half = sampleCount / 2;
+            System.out.println("ns per extra carbon, lower half:\t" + slopeOf(carbonCounts, nanos, 0, half));
+            System.out.println("ns per extra carbon, upper half:\t" + slopeOf(carbonCounts, nanos, half, sampleCount));
+        }
+    }
+
+    // Private:
+
+    private static String smilesOf(int shape, int carbons) {
+        return (String) shapes[shape].apply(carbons);
+    }
+
+    private static String straightChainOf(int carbons) {
+        return "C".repeat(carbons) + "O"; // Like propan-1-ol
+    }
+
+    private static String branchedChainOf(int carbons) {
+        // CC(C)C(C)...C(C)O, a methyl on every other carbon, like 2,3-dimethylbutan-1-ol
+        return "C" + "C(C)".repeat((carbons - 1) / 2) + "C".repeat((carbons - 1) % 2) + "O";
+    }
+
+    private static String stackedRadicalsOf(int carbons) {
+        // CC(C)C(CC)C(CCC)..., with ever longer radicals, so the main chain keeps turning into them
+        StringBuilder smiles = new StringBuilder("C");
+        int carbonCount = 1;
+
+        for (int radical = 1; carbonCount + 1 + radical <= carbons; radical++) {
+            smiles.append("C(").append("C".repeat(radical)).append(")");
+            carbonCount += 1 + radical;
+        }
+
+        return smiles.append("C".repeat(carbons - carbonCount)).toString();
+    }
+
+    private static String etherOf(int carbons) {
+        return "C".repeat(Math.max(1, carbons / 2)) + "O" + "C".repeat(Math.max(1, carbons - carbons / 2));
+    }
+
+    private static boolean convertsWithSmallStack(int shape) throws InterruptedException {
+        String smiles = smilesOf(shape, maximumCarbons);
+        boolean[] converted = new boolean[1];
+
+        Thread thread = new Thread(null, () -> {
+            try {
+                converted[0] = OrganicFactory.getFromSmiles(smiles).isPresent();
+            } catch (StackOverflowError stackOverflowError) {
+                System.out.println(shapeNames[shape] + " chain of " + maximumCarbons + " carbons overflowed.");
+            }
+        }, "small stack", smallStackSize);
+
+        thread.start();
+        thread.join();
+
+        return converted[0];
+    }
+
+    private static void convert(String smiles) {
+        Optional<Organic> organic = OrganicFactory.getFromSmiles(smiles);
+
+        if (organic.isEmpty())
+            throw new IllegalStateException("Couldn't convert: " + smiles);
+    }
+
+    private static long slopeOf(double[] x, double[] y, int from, int to) { // Least squares
+        double meanX = 0, meanY = 0;
+
+        for (int i = from; i < to; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+
+        meanX /= to - from;
+        meanY /= to - from;
+
+        double covariance = 0, variance = 0;
+
+        for (int i = from; i < to; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+
+        return Math.round(covariance / variance);
+    }
+
+}
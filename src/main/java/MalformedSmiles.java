@@ -0,0 +1,105 @@
+import com.quimify.organic.Organic;
+import com.quimify.organic.OrganicFactory;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Random;
+
+public class MalformedSmiles {
+
+    private static final Random random = new Random(0);
+
+    // Settings:
+
+    private static final int numberOfRandomSmiles = 1 << 20;
+    private static final int maximumLength = 12;
+
+    private static final String alphabet = "CNOBrClFIH[]()=#$-/\\:.%0123456789@+c";
+
+    // Corpus:
+
+    private static final String[] corpus = {
+            "",
+            "(",
+            ")C",
+            "C(",
+            "C)",
+            "C((C)",
+            "[",
+            "[]",
+            "C[",
+            "C[C",
+            "[13",
+            "[13]",
+            "[C@",
+            "[CH",
+            "C[O]",
+            "C[CH5]",
+            "c",
+            "cc",
+            "C1CC1",
+            "C%10CC%10",
+            "Xx",
+            "C=",
+            "C==C",
+            "=C",
+            "C(=)C",
+            ".",
+    };
+
+    public static void main(String[] args) {
+        System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+        int failures = 0;
+
+        for (String smiles : corpus)
+            if (!convertsToNothing(smiles))
+                failures++;
+
+        System.out.println("Corpus:\t" + (corpus.length - failures) + "/" + corpus.length + " converted to nothing");
+
+        int exceptionCount = 0;
+
+        for (int i = 0; i < numberOfRandomSmiles; i++) {
+            String smiles = getRandomSmiles();
+
+            try {
+                OrganicFactory.getFromSmiles(smiles);
+            } catch (Exception exception) {
+                System.out.println("Exception for " + smiles + ": " + exception);
+                exceptionCount++;
+            }
+        }
+
+        System.out.println("Random:\t" + exceptionCount + "/" + numberOfRandomSmiles + " threw");
+    }
+
+    // Private:
+
+    private static boolean convertsToNothing(String smiles) {
+        try {
+            Optional<Organic> organic = OrganicFactory.getFromSmiles(smiles);
+
+            if (organic.isEmpty())
+                return true;
+
+            System.out.println("Expected nothing but got " + organic.get().getName() + " for: " + smiles);
+        } catch (Exception exception) {
+            System.out.println("Expected nothing but got " + exception + " for: " + smiles);
+        }
+
+        return false;
+    }
+
+    private static String getRandomSmiles() {
+        StringBuilder smiles = new StringBuilder();
+        int length = random.nextInt(maximumLength + 1);
+
+        for (int i = 0; i < length; i++)
+            smiles.append(alphabet.charAt(random.nextInt(alphabet.length())));
+
+        return smiles.toString();
+    }
+
+}
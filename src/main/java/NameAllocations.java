@@ -0,0 +1,54 @@
+import com.quimify.organic.molecules.openchain.OpenChain;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NameAllocations {
+
+    // Settings:
+
+    private static final int warmUpRounds = 3;
+    private static final int measuredRounds = 100000;
+
+    // Corpus:
+
+    // Input sequences like in StructureToName (group ordinals, -1 for carbons, radicals followed by iso and carbons):
+
+    private static final String[] corpus = {
+            "18 18 18 -1 18 18 7",
+            "18 18 18 -1 18 17 0 1 -1 0",
+            "5 -1 18 -1 18 -1 14 18 18",
+            "18 18 18 -1 6 -1 6 -1 18 18 18",
+            "13 17 0 14 17 0 10 14",
+            "17 0 5 -1 -1 17 0 9 -1 18 17 1 9",
+            "18 18 18 -1 18 18 9 18 18 -1 14 18 18",
+            "17 0 6 17 1 10 9 17 0 1 -1 17 0 7",
+            "9 17 0 9 18 17 0 3 -1 -1 17 1 11 18 18",
+    };
+
+    public static void main(String[] args) {
+        System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+        List<OpenChain> openChains = new ArrayList<>();
+
+        for (String inputSequence : corpus) {
+            OpenChain openChain = Runners.replay(inputSequence);
+            openChain.standardize();
+            openChains.add(openChain);
+        }
+
+        for (int i = 0; i < warmUpRounds; i++)
+            for (OpenChain openChain : openChains)
+                Runners.measure(openChain::getName, measuredRounds);
+
+        System.out.println("B/call\tns/call\tName");
+
+        for (OpenChain openChain : openChains) {
+            long[] bytesAndNanos = Runners.measure(openChain::getName, measuredRounds);
+            System.out.println(bytesAndNanos[0] + "\t" + bytesAndNanos[1] + "\t" + openChain.getName());
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+import com.quimify.organic.OrganicFactory;
+import com.quimify.organic.molecules.openchain.OpenChain;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+public class OpenChainCache {
+
+    // Corpus:
+
+    // Input sequences like in StructureToName (group ordinals, -1 for carbons, radicals followed by iso and carbons),
+    // with the names they get without the cache. These are the same octane with its radicals bonded in other orders,
+    // which standardizing breaks the orientation tie with:
+
+    private static final String[][] corpus = {
+            // C4 with ethyl then propyl, C5 with methyl then ethyl:
+            {"18 18 18 -1 18 18 -1 18 18 -1 17 0 2 17 0 3 -1 17 0 1 17 0 2 -1 18 18 -1 18 18 -1 18 18 18",
+                    "4,5-dietil-5-metil-4-propiloctano"},
+            // C4 with ethyl then propyl, C5 with ethyl then methyl:
+            {"18 18 18 -1 18 18 -1 18 18 -1 17 0 2 17 0 3 -1 17 0 2 17 0 1 -1 18 18 -1 18 18 -1 18 18 18",
+                    "4,5-dietil-4-metil-5-propiloctano"},
+            // C4 with propyl then ethyl, C5 with methyl then ethyl:
+            {"18 18 18 -1 18 18 -1 18 18 -1 17 0 3 17 0 2 -1 17 0 1 17 0 2 -1 18 18 -1 18 18 -1 18 18 18",
+                    "4,5-dietil-4-metil-5-propiloctano"},
+    };
+
+    private static final int rounds = 2; // So the second one only hits
+
+    public static void main(String[] args) {
+        System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+        OrganicFactory.setOpenChainCacheEnabled(true);
+
+        int total = 0;
+        int failures = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            for (String[] entry : corpus) {
+                OpenChain openChain = Runners.replay(entry[0]);
+                String name = OrganicFactory.getFromOpenChain(openChain).getName();
+
+                if (!name.equals(entry[1])) {
+                    System.out.println("Expected " + entry[1] + " but got " + name + " for: " + entry[0]);
+                    failures++;
+                }
+
+                total++;
+            }
+        }
+
+        System.out.println("Corpus:\t" + (total - failures) + "/" + total + " names kept with the cache");
+        System.out.println("Cache:\t" + OrganicFactory.getOpenChainCache().getHitCount() + " hits");
+    }
+
+}
@@ -96,7 +96,7 @@ public class RandomStructureToName {
             }
 
             if (random.nextInt(bondHydrogenPeriod) == 0) {
-                openChain = openChain.bond(new Substituent(Group.hydrogen));
+                openChain = openChain.bond(Substituent.of(Group.hydrogen));
                 continue;
             }
 
@@ -117,7 +117,7 @@ public class RandomStructureToName {
         Substituent substituent;
 
         if (group != Group.radical)
-            substituent = new Substituent(group);
+            substituent = Substituent.of(group);
         else if (random.nextInt(bondIsoRadicalPeriod) == 0 && maximumCarbonsInRadicals >= 3) {
             int extraCarbons = maximumCarbonsInRadicals - 3;
             substituent = Substituent.radical(3 + (extraCarbons == 0 ? 0 : random.nextInt(extraCarbons)), true);
@@ -0,0 +1,49 @@
+import com.quimify.organic.molecules.openchain.InputSequence;
+import com.quimify.organic.molecules.openchain.OpenChain;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// This class holds what the runners share.
+
+final class Runners {
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Constructor:
+
+    private Runners() {}
+
+    // Input sequences:
+
+    static OpenChain replay(String inputSequence) { // Like in StructureToName, separated by spaces
+        List<Integer> inputs = new ArrayList<>();
+
+        for (String input : inputSequence.split(" "))
+            inputs.add(Integer.parseInt(input));
+
+        return InputSequence.replay(InputSequence.encode(inputs));
+    }
+
+    // Measuring:
+
+    static long[] measure(Runnable call, int rounds) { // Mean bytes and median nanoseconds per call
+        long[] nanos = new long[rounds];
+        long startBytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        for (int i = 0; i < rounds; i++) {
+            long startNanos = System.nanoTime();
+            call.run();
+            nanos[i] = System.nanoTime() - startNanos;
+        }
+
+        long bytes = (threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - startBytes) / rounds;
+        Arrays.sort(nanos); // The median, so collections don't skew it
+
+        return new long[] {bytes, nanos[rounds / 2]};
+    }
+
+}
@@ -0,0 +1,97 @@
+import com.quimify.organic.components.Group;
+import com.quimify.organic.components.Substituent;
+import com.quimify.organic.molecules.Molecule;
+import com.quimify.organic.molecules.openchain.OpenChain;
+import com.quimify.organic.molecules.openchain.Simple;
+import com.quimify.organic.opsin.Opsin;
+import com.quimify.organic.opsin.OpsinResult;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+public class SmilesAndCml {
+
+    private static final Random random = new Random(0);
+
+    // Settings:
+
+    private static final int numberOfOpenChains = 1 << 12;
+
+    private static final int bondCarbonPeriod = 4;
+    private static final int bondHydrogenPeriod = 2;
+    private static final int bondIsoRadicalPeriod = 5;
+
+    private static final int maximumCarbonsInRadicals = 4;
+
+    public static void main(String[] args) throws Exception {
+        System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+        int parsedCount = 0;
+        int failures = 0;
+
+        for (int i = 0; i < numberOfOpenChains; i++) {
+            OpenChain openChain = getRandomOpenChain();
+            String name = openChain.getName();
+
+            Optional<OpsinResult> opsinResult = Opsin.parseSpanishName(name);
+
+            if (opsinResult.isEmpty())
+                continue;
+
+            parsedCount++;
+
+            // The same molecule, with OPSIN's atoms in the order of its SMILES and of its CML:
+            String smiles = opsinResult.get().getSmiles();
+            String cml = opsinResult.get().getCml();
+
+            String fromSmiles = describe(Molecule.from(smiles).flatMap(Molecule::toOpenChain));
+            String fromCml = describe(Molecule.from(cml, smiles).flatMap(Molecule::toOpenChain));
+
+            if (!fromSmiles.equals(fromCml)) {
+                System.out.println("From SMILES " + fromSmiles + " but from CML " + fromCml + " for: " + name);
+                failures++;
+            }
+        }
+
+        System.out.println("Names:\t" + (parsedCount - failures) + "/" + parsedCount + " alike from SMILES and CML");
+    }
+
+    // Private:
+
+    private static String describe(Optional<OpenChain> openChain) {
+        return openChain.map(o -> o.getName() + " (" + o.getStructure() + ")").orElse("nothing");
+    }
+
+    private static OpenChain getRandomOpenChain() {
+        OpenChain openChain = new Simple();
+
+        while (!openChain.isDone()) {
+            if (openChain.canBondCarbon() && random.nextInt(bondCarbonPeriod) == 0) {
+                openChain.bondCarbon();
+                continue;
+            }
+
+            if (random.nextInt(bondHydrogenPeriod) == 0) {
+                openChain = openChain.bond(Group.hydrogen);
+                continue;
+            }
+
+            List<Group> bondableGroups = openChain.getBondableGroups();
+            Group group = bondableGroups.get(random.nextInt(bondableGroups.size()));
+
+            if (group != Group.radical)
+                openChain = openChain.bond(group);
+            else if (random.nextInt(bondIsoRadicalPeriod) == 0)
+                openChain = openChain.bond(Substituent.radical(3 + random.nextInt(maximumCarbonsInRadicals - 2), true));
+            else openChain = openChain.bond(Substituent.radical(1 + random.nextInt(maximumCarbonsInRadicals)));
+        }
+
+        openChain.standardize();
+
+        return openChain;
+    }
+
+}
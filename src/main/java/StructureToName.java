@@ -2,12 +2,14 @@ import com.quimify.organic.Organic;
 import com.quimify.organic.OrganicFactory;
 import com.quimify.organic.components.Group;
 import com.quimify.organic.components.Substituent;
+import com.quimify.organic.molecules.openchain.InputSequence;
 import com.quimify.organic.molecules.openchain.OpenChain;
 import com.quimify.organic.molecules.openchain.Simple;
 
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
@@ -27,7 +29,7 @@ public class StructureToName {
                 System.out.print(bondableGroup.ordinal() + ": ");
 
                 if (bondableGroup != Group.radical)
-                    System.out.println(new Substituent(bondableGroup));
+                    System.out.println(Substituent.of(bondableGroup));
                 else System.out.println("-CH2-CH3");
             }
 
@@ -43,7 +45,7 @@ public class StructureToName {
             int input = new Scanner(System.in).nextInt();
             inputSequence.add(input);
 
-            if (input == -1 && canBondCarbon) {
+            if (input == InputSequence.carbonInput && canBondCarbon) {
                 openChain.bondCarbon();
                 System.out.println();
                 continue;
@@ -67,6 +69,8 @@ public class StructureToName {
 
         System.out.print("Input sequence:\t\t\t");
         System.out.println(inputSequence);
+        System.out.print("Encoded sequence:\t\t");
+        System.out.println(Base64.getEncoder().encodeToString(InputSequence.encode(inputSequence)));
         System.out.print("Input structure: \t\t");
         System.out.println(openChain.getStructure());
 
@@ -0,0 +1,50 @@
+package com.quimify.organic;
+
+import java.util.Optional;
+
+// This class represents the outcome of converting one item of a batch.
+
+public class BatchResult<T> {
+
+    private final T input; // I.E. "propan-2-ol"
+    private final Organic organic; // Null if not found or failed
+
+    // If failed:
+
+    private final Exception exception; // I.E. "java.lang.IllegalStateException: Can't bond carbon to the right..."
+
+    // Constructors:
+
+    BatchResult(T input, Organic organic) {
+        this.input = input;
+        this.organic = organic;
+        this.exception = null;
+    }
+
+    BatchResult(T input, Exception exception) {
+        this.input = input;
+        this.organic = null;
+        this.exception = exception;
+    }
+
+    // Queries:
+
+    public boolean isFailed() {
+        return exception != null;
+    }
+
+    // Getters:
+
+    public T getInput() {
+        return input;
+    }
+
+    public Optional<Organic> getOrganic() {
+        return Optional.ofNullable(organic);
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+}
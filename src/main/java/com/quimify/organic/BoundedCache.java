@@ -0,0 +1,180 @@
+package com.quimify.organic;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntBiFunction;
+
+// This class implements a thread-safe cache bounded by the total weight of its entries. It's split into segments, each
+// one with its own lock, its own share of the weight budget and least-recently-used eviction. Entries heavier than a
+// segment's share are never cached.
+
+public class BoundedCache<K, V> {
+
+    private final List<Segment> segments;
+    private final long maxSegmentWeight;
+    private final ToIntBiFunction<K, V> weigher;
+
+    // Statistics:
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    // Constants:
+
+    private static final int segmentCount = 16; // Power of 2
+
+    // Error messages:
+
+    private static final String negativeMaxWeightError = "Maximum weight can't be negative: %d.";
+
+    // Constructor:
+
+    public BoundedCache(long maxWeight, ToIntBiFunction<K, V> weigher) {
+        if (maxWeight < 0)
+            throw new IllegalArgumentException(String.format(negativeMaxWeightError, maxWeight));
+
+        this.segments = new ArrayList<>(segmentCount);
+        this.maxSegmentWeight = maxWeight / segmentCount;
+        this.weigher = weigher;
+
+        for (int i = 0; i < segmentCount; i++)
+            segments.add(new Segment());
+    }
+
+    // Queries:
+
+    public V get(K key) { // Null if missing
+        V value = segmentFor(key).get(key);
+
+        if (value != null)
+            hitCount.increment();
+        else missCount.increment();
+
+        return value;
+    }
+
+    // Modifiers:
+
+    public void put(K key, V value) { // Ignored if heavier than maxWeight / segmentCount
+        int weight = weigher.applyAsInt(key, value);
+
+        if (weight > maxSegmentWeight)
+            return; // It would evict everything else
+
+        segmentFor(key).put(key, value, weight);
+    }
+
+    public void clear() {
+        for (Segment segment : segments)
+            segment.clear();
+    }
+
+    // Private:
+
+    private Segment segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16; // Spreads higher bits
+
+        return segments.get(hash & (segmentCount - 1));
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Access-ordered
+        private long weight;
+
+        synchronized V get(K key) {
+            Entry entry = entries.get(key);
+            return entry != null ? entry.value : null;
+        }
+
+        synchronized void put(K key, V value, int weight) {
+            Entry old = entries.put(key, new Entry(value, weight));
+
+            if (old != null)
+                this.weight -= old.weight;
+
+            this.weight += weight;
+
+            Iterator<Map.Entry<K, Entry>> eldest = entries.entrySet().iterator();
+
+            while (this.weight > maxSegmentWeight) {
+                this.weight -= eldest.next().getValue().weight;
+                eldest.remove();
+
+                evictionCount.increment();
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        synchronized int getSize() {
+            return entries.size();
+        }
+
+        synchronized long getWeight() {
+            return weight;
+        }
+
+    }
+
+    private final class Entry {
+
+        private final V value;
+        private final int weight;
+
+        Entry(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+
+    }
+
+    // Getters:
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public double getHitRate() { // Zero until the first lookup
+        long hitCount = getHitCount();
+        long lookupCount = hitCount + getMissCount();
+
+        return lookupCount > 0 ? (double) hitCount / lookupCount : 0;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public int getSize() {
+        int size = 0;
+
+        for (Segment segment : segments)
+            size += segment.getSize();
+
+        return size;
+    }
+
+    public long getWeight() {
+        long weight = 0;
+
+        for (Segment segment : segments)
+            weight += segment.getWeight();
+
+        return weight;
+    }
+
+}
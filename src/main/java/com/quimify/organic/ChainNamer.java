@@ -0,0 +1,252 @@
+package com.quimify.organic;
+
+import com.quimify.organic.components.ChainView;
+import com.quimify.organic.components.Group;
+import com.quimify.organic.components.Substituent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+// This class assembles the names of Simple and Ether chains. It writes them into buffers that are reused by each
+// thread, so the only objects it creates per name are the returned strings.
+
+public final class ChainNamer extends Nomenclature {
+
+    private final StringBuilder name = new StringBuilder();
+    private final StringBuilder firstChainName = new StringBuilder();
+    private final StringBuilder secondChainName = new StringBuilder();
+    private final StringBuilder suffix = new StringBuilder();
+    private final StringBuilder bonds = new StringBuilder();
+
+    private final List<Substituent> prefixes = new ArrayList<>();
+
+    // Constants:
+
+    private static final Group[] groups = Group.values();
+
+    private static final ThreadLocal<ChainNamer> chainNamers = ThreadLocal.withInitial(ChainNamer::new);
+
+    private static final Comparator<Substituent> alphabetically = Comparator.comparing(ChainNamer::prefixNameFor);
+
+    // Constructors:
+
+    private ChainNamer() {}
+
+    public static ChainNamer get() { // One for each thread
+        return chainNamers.get();
+    }
+
+    // Names:
+
+    public String getSimpleNameFor(ChainView chain, BiPredicate<Group, ChainView> isRedundantInNameIn) {
+        name.setLength(0);
+        suffix.setLength(0);
+        bonds.setLength(0);
+
+        // Se procesa el sufijo:
+        Group suffixGroup = getSuffixGroupIn(chain);
+
+        if (suffixGroup != null)
+            appendLocatorTo(suffix, chain, Substituent.of(suffixGroup), suffixNameParticleFor(suffixGroup),
+                    isRedundantInNameIn.test(suffixGroup, chain));
+
+        // Se procesan los prefijos:
+        if (chain.isBondedTo(Group.acid))
+            name.append("ácido ");
+
+        appendPrefixesTo(name, chain, suffixGroup, isRedundantInNameIn);
+
+        // Se procesan los enlaces:
+        appendBondsTo(bonds, chain, isRedundantInNameIn);
+
+        if (bonds.length() == 0)
+            bonds.append("an");
+        if (suffix.length() == 0 || doesNotStartWithVowel(suffix))
+            bonds.append("o");
+        if (suffix.length() > 0 && startsWithDigit(suffix))
+            bonds.append("-");
+
+        // Se procesa el cuantificador:
+        name.append(quantifierFor(chain.getSize()));
+
+        if (doesNotStartWithVowel(bonds))
+            name.append("a");
+
+        return name.append(bonds).append(suffix).toString();
+    }
+
+    public String getEtherNameFor(ChainView firstChain, ChainView secondChain,
+                                  BiPredicate<Group, ChainView> isRedundantInNameIn) {
+        name.setLength(0);
+
+        int comparison = compareEtherChainNames(firstChain, secondChain, isRedundantInNameIn);
+
+        if (comparison != 0) {
+            // Chains are alphabetically ordered:
+            if (comparison < 0)
+                name.append(firstChainName).append(" ").append(secondChainName);
+            else name.append(secondChainName).append(" ").append(firstChainName);
+        }
+        else name.append(startsWithDigit(firstChainName) ? "di " : "di").append(firstChainName);
+
+        return name.append(" éter").toString();
+    }
+
+    public int compareEtherChainNames(ChainView firstChain, ChainView secondChain,
+                                      BiPredicate<Group, ChainView> isRedundantInNameIn) { // Alphabetically
+        firstChainName.setLength(0);
+        secondChainName.setLength(0);
+
+        appendEtherChainNameTo(firstChainName, firstChain, isRedundantInNameIn);
+        appendEtherChainNameTo(secondChainName, secondChain, isRedundantInNameIn);
+
+        return firstChainName.compareTo(secondChainName);
+    }
+
+    // Private:
+
+    private void appendEtherChainNameTo(StringBuilder chainName, ChainView chain,
+                                        BiPredicate<Group, ChainView> isRedundantInNameIn) {
+        bonds.setLength(0);
+
+        // Se procesan los prefijos:
+        if (chain.isBondedTo(Group.acid))
+            chainName.append("ácido ");
+
+        appendPrefixesTo(chainName, chain, Group.ether, isRedundantInNameIn);
+
+        // Se procesan los enlaces:
+        appendBondsTo(bonds, chain, isRedundantInNameIn);
+
+        // Se procesa el cuantificador:
+        chainName.append(quantifierFor(chain.getSize()));
+
+        if (bonds.length() > 0 && doesNotStartWithVowel(bonds))
+            chainName.append("a");
+
+        chainName.append(bonds).append("il");
+    }
+
+    private static Group getSuffixGroupIn(ChainView chain) { // The priority one, if it can be named as a suffix
+        Group priorityGroup = chain.getPriorityGroup().orElse(Group.hydrogen);
+
+        if (priorityGroup == Group.hydrogen || isHalogen(priorityGroup) || isBond(priorityGroup))
+            return null;
+
+        if (priorityGroup == Group.nitro || priorityGroup == Group.radical)
+            return null;
+
+        return priorityGroup;
+    }
+
+    private void appendPrefixesTo(StringBuilder chainName, ChainView chain, Group skippedGroup,
+                                  BiPredicate<Group, ChainView> isRedundantInNameIn) {
+        prefixes.clear();
+
+        for (Group group : groups)
+            if (group != skippedGroup && chain.isBondedTo(group) && isPrefix(group))
+                prefixes.add(Substituent.of(group));
+
+        chain.addRadicalsTo(prefixes);
+
+        prefixes.sort(alphabetically); // No se tienen en cuenta los multiplicadores ni las posiciones
+
+        Substituent last = null;
+
+        for (Substituent prefix : prefixes) {
+            if (prefix == last)
+                continue; // Radicals are repeated, and they're shared
+
+            boolean isRedundant = prefix.getGroup() != Group.radical
+                    && isRedundantInNameIn.test(prefix.getGroup(), chain);
+
+            if (last != null && !isRedundant)
+                chainName.append("-"); // Guion antes de los localizadores
+
+            appendLocatorTo(chainName, chain, prefix, prefixNameFor(prefix), isRedundant);
+
+            last = prefix;
+        }
+    }
+
+    private static boolean isPrefix(Group group) {
+        return group != Group.hydrogen && group != Group.radical && !isBond(group);
+    }
+
+    private static String prefixNameFor(Substituent prefix) {
+        if (prefix.getGroup() == Group.radical)
+            return radicalNameParticleFor(prefix);
+
+        return prefixNameParticleFor(prefix.getGroup());
+    }
+
+    private static void appendBondsTo(StringBuilder bonds, ChainView chain,
+                                      BiPredicate<Group, ChainView> isRedundantInNameIn) {
+        appendBondTo(bonds, chain, Group.alkene, isRedundantInNameIn.test(Group.alkene, chain));
+        appendBondTo(bonds, chain, Group.alkyne, isRedundantInNameIn.test(Group.alkyne, chain));
+    }
+
+    private static void appendBondTo(StringBuilder bonds, ChainView chain, Group bond, boolean isRedundant) {
+        int amount = chain.getAmountOf(bond);
+
+        if (amount == 0)
+            return;
+
+        if (isRedundant) // Sobran los localizadores porque son evidentes
+            bonds.append(multiplierFor(amount)); // Como "dien"
+        else {
+            bonds.append("-"); // Guion antes de los localizadores
+            appendPositionsTo(bonds, chain, bond);
+            bonds.append("-").append(multiplierFor(amount)); // Como "-1,2-dien"
+        }
+
+        bonds.append(bondNameParticleFor(bond));
+    }
+
+    private static void appendLocatorTo(StringBuilder text, ChainView chain, Substituent substituent, String lexeme,
+                                        boolean isRedundant) {
+        // "2,3-diol", "tetrain" o "fluoro"
+        int amount;
+
+        if (isRedundant) // Sobran los localizadores porque son evidentes
+            amount = chain.getAmountOf(substituent.getGroup()); // Radicals never are
+        else {
+            amount = appendPositionsTo(text, chain, substituent);
+            text.append("-");
+        }
+
+        text.append(multiplierFor(amount)).append(lexeme);
+    }
+
+    private static int appendPositionsTo(StringBuilder text, ChainView chain, Group bond) {
+        int amount = 0;
+
+        for (int i = 0; i < chain.getSize(); i++)
+            for (int j = chain.getAmountAt(i, bond); j > 0; j--)
+                amount = appendPositionTo(text, i, amount);
+
+        return amount;
+    }
+
+    private static int appendPositionsTo(StringBuilder text, ChainView chain, Substituent substituent) {
+        int amount = 0;
+
+        for (int i = 0; i < chain.getSize(); i++)
+            for (int j = chain.getAmountAt(i, substituent); j > 0; j--)
+                amount = appendPositionTo(text, i, amount);
+
+        return amount;
+    }
+
+    private static int appendPositionTo(StringBuilder text, int index, int amount) { // "2,3"
+        if (amount > 0)
+            text.append(",");
+
+        text.append(index + 1);
+
+        return amount + 1;
+    }
+
+}
@@ -1,11 +1,8 @@
 package com.quimify.organic;
 
-import com.quimify.organic.components.Chain;
 import com.quimify.organic.components.Group;
 import com.quimify.organic.components.Substituent;
 
-import java.util.Comparator;
-import java.util.List;
 import java.util.Set;
 
 // This class wraps up organic nomenclature utilities.
@@ -19,6 +16,24 @@ public class Nomenclature {
             Group.iodine
     );
 
+    // Lexeme tables:
+
+    private static final int maximumNumber = 999;
+
+    private static final String[] quantifiers = new String[maximumNumber + 1]; // Like "et" for 2
+    private static final String[] multipliers = new String[maximumNumber + 1]; // Like "di" for 2
+    private static final String[][] radicalNames = new String[2][maximumNumber + 1]; // Like "isopropil" for [1][3]
+
+    static {
+        for (int number = 0; number <= maximumNumber; number++) {
+            quantifiers[number] = buildQuantifierFor(number);
+            multipliers[number] = buildMultiplierFor(number);
+
+            radicalNames[0][number] = quantifiers[number] + "il";
+            radicalNames[1][number] = "iso" + quantifiers[number] + "il";
+        }
+    }
+
     // Queries:
 
     protected static boolean isHalogen(Group group) {
@@ -31,7 +46,28 @@ public class Nomenclature {
 
     // Text: TODO refactor, translation
 
-    protected static String quantifierFor(int number) { // TODO check correctness
+    protected static String quantifierFor(int number) {
+        if (number < 0 || number > maximumNumber)
+            return buildQuantifierFor(number); // It will throw an exception
+
+        return quantifiers[number];
+    }
+
+    protected static String multiplierFor(int number) {
+        if (number < 0 || number > maximumNumber)
+            return buildMultiplierFor(number); // It will throw an exception
+
+        return multipliers[number];
+    }
+
+    protected static String radicalNameParticleFor(Substituent radical) {
+        if (radical.getCarbonCount() > maximumNumber)
+            return buildQuantifierFor(radical.getCarbonCount()); // It will throw an exception
+
+        return radicalNames[radical.isIso() ? 1 : 0][radical.getCarbonCount()];
+    }
+
+    private static String buildQuantifierFor(int number) { // TODO check correctness
         String quantifier;
 
         if (number < 10) { // [1, 9]
@@ -85,11 +121,11 @@ public class Nomenclature {
             }
             else if (number == 100) // 100
                 quantifier = "hect";
-            else if (number < 999) {  // [101, 999] TODO <= ?
+            else if (number <= 999) {  // [101, 999]
                 int centenas = number / 100;
                 decenas = decenas - (centenas * 10);
 
-                quantifier = quantifierFor(10 * decenas + unidades); // Recursivo
+                quantifier = buildQuantifierFor(10 * decenas + unidades); // Recursivo
 
                 switch (centenas) {
                     case 1: // [101, 199]
@@ -156,7 +192,7 @@ public class Nomenclature {
         return greekPrefix;
     }
 
-    protected static String multiplierFor(int number) {
+    private static String buildMultiplierFor(int number) {
         String multiplier;
 
         switch (number) {
@@ -173,121 +209,13 @@ public class Nomenclature {
                 multiplier = "tetra";
                 break;
             default:
-                multiplier = quantifierFor(number) + "a";
+                multiplier = buildQuantifierFor(number) + "a";
                 break;
         }
 
         return multiplier;
     }
 
-    protected static class Locator {
-
-        // Esta clase representa un localizador de un nombre IUPAC, como "2,3-diol".
-
-        private String posiciones, multiplicador, lexema;
-
-        // EJEMPLOS:
-        /*
-            "2,3-diol"  =   { posiciones: "2,3",  multiplicador: "di",     lexema: "ol"     }
-            "tetrain"   =   { posiciones: "",     multiplicador: "tetra",  lexema: "in"     }
-            "fluoro"    =   { posiciones: "",     multiplicador: "",       lexema: "fluoro" }
-        */
-
-        private void construir(String posiciones, String multiplicador, String nombre) {
-            this.posiciones = posiciones;
-            this.multiplicador = multiplicador;
-            this.lexema = nombre;
-        }
-
-        Locator(String multiplicador, String lexema) {
-            construir("", multiplicador, lexema);
-        }
-
-        public Locator(List<Integer> posiciones, String lexema) {
-            StringBuilder auxiliar = new StringBuilder();
-
-            if (posiciones.size() > 0) {
-                for (int i = 0; i < posiciones.size() - 1; i++)
-                    auxiliar.append(posiciones.get(i) + 1).append(",");
-                auxiliar.append(posiciones.get(posiciones.size() - 1) + 1);
-            }
-
-            construir(auxiliar.toString(), multiplierFor(posiciones.size()), lexema);
-        }
-
-        // No se tienen en cuenta los multiplicadores ni las posiciones, como propone la IUPAC.
-        // Ej.: "2,3-diol" → "ol"
-        public static void orderAplhabetically(List<Locator> localizadores) {
-            localizadores.sort(Comparator.comparing(Locator::getLexema));
-        }
-
-        @Override
-        public String toString() {
-            String resultado = "";
-
-            if (!posiciones.equals(""))
-                resultado = posiciones + "-";
-            resultado += multiplicador + lexema;
-
-            return resultado;
-        }
-
-        // Getters y setters:
-
-        String getLexema() {
-            return lexema;
-        }
-
-    }
-
-    protected static Locator getPrefixForIn(Group group, Chain chain, boolean isRedundant) {
-        Locator prefix;
-
-        List<Integer> indexes = chain.getIndexesOf(group);
-        String name = prefixNameParticleFor(group);
-
-        if (isRedundant) // Sobran los localizadores porque son evidentes
-            prefix = new Locator(multiplierFor(indexes.size()), name); // Como "difluoro"
-        else prefix = new Locator(indexes, name); // Como "1,2-difluoro"
-
-        return prefix;
-    }
-
-    protected static String getBondNameForIn(Group bond, Chain chain, boolean isRedundant) {
-        String bondName = "";
-
-        List<Integer> indexes = chain.getIndexesOf(bond);
-
-        if (indexes.size() > 0) {
-            Locator locator;
-
-            if (isRedundant) // Sobran los localizadores porque son evidentes isRedundantInName(bond)
-                locator = new Locator(multiplierFor(indexes.size()), bondNameParticleFor(bond)); // Como "dien"
-            else locator = new Locator(indexes, bondNameParticleFor(bond)); // Como "1,2-dien"
-
-            String locatorName = locator.toString();
-
-            if (startsWithDigit(locatorName))
-                bondName += "-"; // Guion antes de los localizadores
-
-            bondName += locatorName;
-        }
-
-        return bondName;
-    }
-
-    protected static String radicalNameParticleFor(Substituent radical) {
-        String nameParticle;
-
-        if (radical.isIso())
-            nameParticle = "iso";
-        else nameParticle = "";
-
-        nameParticle += quantifierFor(radical.getCarbonCount()) + "il";
-
-        return nameParticle;
-    }
-
     static String prefixNameParticleFor(Group group) {
         String prefixNameParticle;
 
@@ -391,27 +319,47 @@ public class Nomenclature {
         }
     }
 
+    protected static String smilesBondSymbolFor(int bondOrder) {
+        switch (bondOrder) {
+            case 0:
+                return ""; // Implicit
+            case 1:
+                return "=";
+            case 2:
+                return "#";
+            default:
+                throw new IllegalArgumentException("No existen enlaces de orden " + bondOrder + ".");
+        }
+    }
+
     protected static String molecularQuantifierFor(int count) {
         return count != 1 ? String.valueOf(count) : ""; // As in "CO2" or "CO"
     }
 
     // Text utils: TODO private?
 
-    protected static boolean doesNotStartWithVowel(String text) {
+    protected static boolean doesNotStartWithVowel(CharSequence text) {
         return "aeiou".indexOf(firstLetterOf(text)) == -1;
     }
 
-    protected static boolean doesNotStartWithLetter(String text) {
-        return text.charAt(0) != firstLetterOf(text);
+    protected static boolean doesNotStartWithLetter(CharSequence text) {
+        return !isLetter(text.charAt(0));
+    }
+
+    private static char firstLetterOf(CharSequence text) {
+        for (int i = 0; i < text.length(); i++)
+            if (isLetter(text.charAt(i)))
+                return text.charAt(i);
+
+        return 0;
     }
 
-    private static char firstLetterOf(String text) {
-        return (char) text.chars().filter(c -> String.valueOf((char) c).matches("[a-zA-Z]"))
-                .findFirst().orElse(0);
+    private static boolean isLetter(char character) { // Like [a-zA-Z]
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
     }
 
-    protected static boolean startsWithDigit(String text) {
-        return text.matches("^\\d.*$");
+    protected static boolean startsWithDigit(CharSequence text) { // Like ^\d.*$
+        return text.length() > 0 && text.charAt(0) >= '0' && text.charAt(0) <= '9';
     }
 
 }
@@ -3,13 +3,60 @@ package com.quimify.organic;
 import com.quimify.organic.opsin.Opsin;
 import com.quimify.organic.opsin.OpsinResult;
 import com.quimify.organic.molecules.Molecule;
+import com.quimify.organic.molecules.openchain.CanonicalKey;
 import com.quimify.organic.molecules.openchain.OpenChain;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class OrganicFactory {
 
+    // Batches are split in this many chunks per thread, so that uneven items are balanced:
+
+    private static final int chunksPerThread = 4;
+
+    // Name-to-structure results, keyed by (language, name):
+
+    private static final long nameCacheMaxWeight = 1 << 24; // In chars, around 32 MB
+
+    private static final BoundedCache<List<String>, Optional<Organic>> nameCache =
+            new BoundedCache<>(nameCacheMaxWeight, OrganicFactory::weightOfName);
+
+    // Structure-to-name results, keyed by (open chain as it was built, OPSIN check):
+
+    private static final long openChainCacheMaxWeight = 1 << 22; // In chars and key bytes, around 8 MB
+
+    private static final BoundedCache<OpenChainKey, Organic> openChainCache =
+            new BoundedCache<>(openChainCacheMaxWeight, OrganicFactory::weightOfOpenChain);
+
+    private static volatile boolean openChainCacheEnabled = false;
+
+    // Name-to-structure:
+
     public static Optional<Organic> getFromName(String name, String language) {
+        List<String> key = List.of(language, name);
+
+        Optional<Organic> organic = nameCache.get(key);
+
+        if (organic == null) {
+            organic = parseName(name, language); // Negative results are cached too
+            nameCache.put(key, organic);
+        }
+
+        return organic;
+    }
+
+    private static Optional<Organic> parseName(String name, String language) {
         Optional<OpsinResult> opsinResult = language.equals("sp") ? Opsin.parseSpanishName(name) : Opsin.parseEnglishName(name);
 
         if (opsinResult.isEmpty())
@@ -18,7 +65,7 @@ public class OrganicFactory {
         Organic organic;
 
         try {
-            Optional<Molecule> molecule = Molecule.from(opsinResult.get().getCml(), opsinResult.get().getSmiles());
+            Optional<Molecule> molecule = Molecule.from(opsinResult.get().getSmiles()); // No CML needed
 
             if(molecule.isPresent()) {
                 Optional<OpenChain> openChain = molecule.get().toOpenChain();
@@ -34,17 +81,198 @@ public class OrganicFactory {
         return Optional.of(organic);
     }
 
+    private static int weightOfName(List<String> key, Optional<Organic> organic) {
+        int weight = key.get(0).length() + key.get(1).length();
+
+        if (organic.isPresent()) {
+            weight += organic.get().getName().length();
+
+            if (organic.get().getSmiles() != null)
+                weight += organic.get().getSmiles().length();
+
+            if (organic.get().getStructure() != null)
+                weight += organic.get().getStructure().length();
+        }
+
+        return weight;
+    }
+
+    public static BoundedCache<?, ?> getNameCache() {
+        return nameCache;
+    }
+
+    // SMILES-to-name:
+
+    public static Optional<Organic> getFromSmiles(String smiles) {
+        Optional<OpenChain> openChain;
+
+        try {
+            openChain = Molecule.from(smiles).flatMap(Molecule::toOpenChain); // No OPSIN nor CML
+        } catch (RuntimeException malformedSmiles) {
+            return Optional.empty(); // Like "C(", or "C[O]", which has atoms that can't be bonded like that
+        }
+
+        if (openChain.isEmpty())
+            return Optional.empty();
+
+        return Optional.of(new Organic(openChain.get().getName(), smiles, openChain.get().getStructure()));
+    }
+
+    // Structure-to-name:
+
     public static Organic getFromOpenChain(OpenChain openChain) {
+        return getFromOpenChain(openChain, false);
+    }
+
+    // The open chain is standardized when it's converted, but it's left unstandardized when the cache has its result:
+
+    public static Organic getFromOpenChain(OpenChain openChain, boolean checkWithOpsin) {
+        if (!openChainCacheEnabled)
+            return convert(openChain, checkWithOpsin);
+
+        OpenChainKey key = new OpenChainKey(openChain.getUnstandardizedKey(), checkWithOpsin);
+
+        Organic organic = openChainCache.get(key);
+
+        if (organic == null) {
+            organic = convert(openChain, checkWithOpsin);
+            openChainCache.put(key, organic);
+        }
+
+        return organic;
+    }
+
+    private static Organic convert(OpenChain openChain, boolean checkWithOpsin) {
         openChain.standardize();
 
         String name = openChain.getName();
 
-        Optional<OpsinResult> opsinResult = Opsin.parseSpanishName(name);
-        String smiles = opsinResult.map(OpsinResult::getSmiles).orElse(null);
+        String smiles;
+
+        if (checkWithOpsin) { // Null SMILES if OPSIN can't parse the name back
+            Optional<OpsinResult> opsinResult = Opsin.parseSpanishName(name);
+            smiles = opsinResult.map(OpsinResult::getSmiles).orElse(null);
+        }
+        else smiles = openChain.getSmiles();
 
         String structure = openChain.getStructure();
 
         return new Organic(name, smiles, structure);
     }
 
+    private static int weightOfOpenChain(OpenChainKey key, Organic organic) {
+        int weight = key.unstandardizedKey.getLength() + organic.getName().length();
+
+        if (organic.getSmiles() != null)
+            weight += organic.getSmiles().length();
+
+        if (organic.getStructure() != null)
+            weight += organic.getStructure().length();
+
+        return weight;
+    }
+
+    public static void setOpenChainCacheEnabled(boolean enabled) { // Disabled by default
+        openChainCacheEnabled = enabled;
+    }
+
+    public static BoundedCache<?, ?> getOpenChainCache() {
+        return openChainCache;
+    }
+
+    // Batches:
+
+    public static List<BatchResult<String>> getFromNames(Collection<String> names, String language) {
+        return getFromNames(names, language, ForkJoinPool.commonPool());
+    }
+
+    public static List<BatchResult<String>> getFromNames(Collection<String> names, String language, Executor executor) {
+        return convertAll(names, name -> new BatchResult<>(name, getFromName(name, language).orElse(null)), executor);
+    }
+
+    public static List<BatchResult<OpenChain>> getFromOpenChains(Collection<OpenChain> openChains) {
+        return getFromOpenChains(openChains, ForkJoinPool.commonPool());
+    }
+
+    public static List<BatchResult<OpenChain>> getFromOpenChains(Collection<OpenChain> openChains, Executor executor) {
+        // Open chains are standardized in place, so an instance given more than once is only converted by one thread:
+        Set<OpenChain> distinctOpenChains = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctOpenChains.addAll(openChains);
+
+        Map<OpenChain, BatchResult<OpenChain>> openChainToResult = new IdentityHashMap<>();
+
+        for (BatchResult<OpenChain> result : convertAll(distinctOpenChains,
+                openChain -> new BatchResult<>(openChain, getFromOpenChain(openChain)), executor))
+            openChainToResult.put(result.getInput(), result);
+
+        List<BatchResult<OpenChain>> results = new ArrayList<>(openChains.size()); // In input order
+
+        for (OpenChain openChain : openChains)
+            results.add(openChainToResult.get(openChain));
+
+        return results;
+    }
+
+    private static <T> List<BatchResult<T>> convertAll(Collection<T> inputs, Function<T, BatchResult<T>> converter,
+                                                       Executor executor) {
+        List<T> inputList = new ArrayList<>(inputs);
+
+        List<BatchResult<T>> results = new ArrayList<>(Collections.nCopies(inputList.size(), null)); // In input order
+
+        int threadCount = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+
+        int chunkSize = Math.max(1, inputList.size() / (threadCount * chunksPerThread));
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        for (int start = 0; start < inputList.size(); start += chunkSize) {
+            int from = start, to = Math.min(start + chunkSize, inputList.size());
+
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    try {
+                        results.set(i, converter.apply(inputList.get(i)));
+                    } catch (Exception exception) {
+                        results.set(i, new BatchResult<>(inputList.get(i), exception)); // Only this item fails
+                    }
+                }
+            }, executor));
+        }
+
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture<?>[]::new)).join();
+
+        return results;
+    }
+
+    // Open chain cache keys:
+
+    private static final class OpenChainKey {
+
+        private final CanonicalKey unstandardizedKey;
+        private final boolean checkWithOpsin;
+
+        OpenChainKey(CanonicalKey unstandardizedKey, boolean checkWithOpsin) {
+            this.unstandardizedKey = unstandardizedKey;
+            this.checkWithOpsin = checkWithOpsin;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * unstandardizedKey.hashCode() + Boolean.hashCode(checkWithOpsin);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == null || getClass() != other.getClass())
+                return false;
+
+            OpenChainKey otherKey = (OpenChainKey) other;
+
+            return checkWithOpsin == otherKey.checkWithOpsin && unstandardizedKey.equals(otherKey.unstandardizedKey);
+        }
+
+    }
+
 }
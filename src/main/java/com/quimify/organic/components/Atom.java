@@ -1,13 +1,14 @@
 package com.quimify.organic.components;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Atom {
 
     private final Element element;
     private final List<Atom> bondedAtoms;
 
+    private long signature; // Element and amount of bonded atoms of each element
+
     // Constants:
 
     public static final Atom H = new Atom(Element.H);
@@ -22,11 +23,17 @@ public class Atom {
     public static final Atom F = new Atom(Element.F);
     public static final Atom I = new Atom(Element.I);
 
+    private static final int maxAmount = 0xF; // Of bonded atoms of each element in a signature
+
     // Constructor:
 
     private Atom(Element element, List<Atom> bondedAtoms) {
         this.element = element;
         this.bondedAtoms = bondedAtoms;
+        this.signature = signatureOf(element);
+
+        for (Atom bondedAtom : bondedAtoms)
+            signature = addBondedTo(signature, bondedAtom.element);
     }
 
     private Atom(Element element, Atom... bondedAtoms) {
@@ -41,17 +48,43 @@ public class Atom {
 
     public void bond(Atom atom) {
         bondedAtoms.add(atom);
+        signature = addBondedTo(signature, atom.element);
+    }
+
+    // Signatures:
+
+    // Bits 0 to 3 hold the element ordinal, and every next 4 bits hold how many atoms of each element are bonded:
+    // -OH → { O, H: 1 } → 0x3 + 0x100 = 0x103
+    // Amounts stop at maxAmount, which no group has, so they never carry into the next element's bits.
+
+    public static long signatureOf(Element element) {
+        return element.ordinal();
+    }
+
+    public static long bondedSignatureOf(Element element) {
+        return 1L << (4 + 4 * element.ordinal());
+    }
+
+    public static long addBondedTo(long signature, Element element) { // One more bonded atom
+        if (getAmountIn(signature, element) == maxAmount)
+            return signature; // Like "C(C)(C)...", with too many atoms of an element
+
+        return signature + bondedSignatureOf(element);
+    }
+
+    public static int getAmountIn(long signature, Element element) {
+        return (int) (signature >>> (4 + 4 * element.ordinal())) & maxAmount;
     }
 
     // Queries:
 
     public int getAmountOf(Element element) {
-        return (int) bondedAtoms.stream().filter(bondedAtom -> bondedAtom.element == element).count();
+        return getAmountIn(signature, element);
     }
 
     @Override
     public int hashCode() { // Only one node deep
-        return Objects.hash(element, getOrderedBondedElements());
+        return Long.hashCode(signature);
     }
 
     @Override
@@ -59,18 +92,7 @@ public class Atom {
         if (other == null || getClass() != other.getClass())
             return false;
 
-        Atom otherAtom = (Atom) other;
-
-        if (element != otherAtom.element)
-            return false;
-
-        return getOrderedBondedElements().equals(otherAtom.getOrderedBondedElements());
-    }
-
-    // Private:
-
-    private List<Element> getOrderedBondedElements() {
-        return bondedAtoms.stream().map(Atom::getElement).sorted().collect(Collectors.toList());
+        return signature == ((Atom) other).signature;
     }
 
     // Getters:
@@ -83,4 +105,8 @@ public class Atom {
         return bondedAtoms;
     }
 
+    public long getSignature() {
+        return signature;
+    }
+
 }
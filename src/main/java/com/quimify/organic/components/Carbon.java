@@ -2,14 +2,19 @@ package com.quimify.organic.components;
 
 import com.quimify.organic.Nomenclature;
 
+import java.io.ByteArrayOutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+
+// This class represents carbons by how many substituents of each group they have. Radicals, which differ in size, are
+// kept apart as keys like in Substituent.radicalKeyOf(), in the order they were bonded.
 
 public class Carbon extends Nomenclature {
 
     private int freeBondCount;
-    private final List<Substituent> substituents;
+    private final int[] groupCounts; // By group ordinal
+    private int[] radicalKeys; // In bonding order, the first groupCounts[radical] ones
+    private int hash; // 0 until computed
+    private Chain chain; // Whose group counts must follow this carbon's, if any
 
     // Error messages:
 
@@ -17,27 +22,29 @@ public class Carbon extends Nomenclature {
 
     // Constants:
 
-    static final Carbon CH3 = new Carbon(Collections.nCopies(3, new Substituent(Group.hydrogen)));
-    static final Carbon CH2 = new Carbon(Collections.nCopies(2, new Substituent(Group.hydrogen)));
-    static final Carbon CHCH3 = new Carbon(List.of(new Substituent(Group.hydrogen), Substituent.radical(1)));
+    private static final Group[] groups = Group.values();
+    private static final int maxRadicalCount = 4;
 
-    // Constructors:
+    private static final int[] noRadicalKeys = new int[0];
 
-    private Carbon(int freeBondCount, List<Substituent> substituents) {
-        this.freeBondCount = freeBondCount;
-        this.substituents = substituents;
-    }
+    static final Carbon CH3 = completeCarbonWith(Substituent.of(Group.hydrogen), Substituent.of(Group.hydrogen),
+            Substituent.of(Group.hydrogen));
+    static final Carbon CH2 = completeCarbonWith(Substituent.of(Group.hydrogen), Substituent.of(Group.hydrogen));
+    static final Carbon CHCH3 = completeCarbonWith(Substituent.of(Group.hydrogen), Substituent.radical(1));
 
-    private Carbon(List<Substituent> substituents) {
-        this(0, substituents);
-    }
+    // Constructors:
 
     Carbon(int usedBondCount) {
-        this(4 - usedBondCount, new ArrayList<>());
+        this.freeBondCount = 4 - usedBondCount;
+        this.groupCounts = new int[groups.length];
+        this.radicalKeys = noRadicalKeys;
     }
 
     Carbon(Carbon other) {
-        this(other.freeBondCount, other.substituents.stream().map(Substituent::new).collect(Collectors.toList()));
+        this.freeBondCount = other.freeBondCount;
+        this.groupCounts = other.groupCounts.clone();
+        this.radicalKeys = other.radicalKeys.clone();
+        this.hash = other.hash;
     }
 
     // Queries:
@@ -49,23 +56,66 @@ public class Carbon extends Nomenclature {
         if (group == Group.alkyne)
             return freeBondCount == 2; // -CH≡
 
-        return substituents.stream().anyMatch(s -> s.getGroup() == group);
+        return groupCounts[group.ordinal()] > 0;
     }
 
     int getAmountOf(Group group) {
         if (isBond(group))
             return isBondedTo(group) ? 1 : 0;
 
-        return (int) substituents.stream().filter(s -> s.getGroup() == group).count();
+        return groupCounts[group.ordinal()];
     }
 
     int getAmountOf(Substituent substituent) {
-        return Collections.frequency(substituents, substituent);
+        if (substituent.getGroup() != Group.radical)
+            return groupCounts[substituent.getGroup().ordinal()];
+
+        return getAmountOf(radicalKeyOf(substituent));
+    }
+
+    Substituent getGreatestRadical() { // There must be one
+        Substituent greatestRadical = Substituent.radicalFor(radicalKeys[0]);
+
+        for (int i = 1; i < getRadicalCount(); i++) {
+            Substituent radical = Substituent.radicalFor(radicalKeys[i]);
+
+            if (radical.compareTo(greatestRadical) > 0)
+                greatestRadical = radical;
+        }
+
+        return greatestRadical;
+    }
+
+    void addRadicalsTo(List<Substituent> radicals) { // In the order they were bonded, unlike getSubstituents()
+        for (int i = 0; i < getRadicalCount(); i++)
+            radicals.add(Substituent.radicalFor(radicalKeys[i]));
+    }
+
+    void appendKeyTo(ByteArrayOutputStream key) { // Like equals(), but leaving bonds to the chain
+        for (Group group : groups) {
+            if (group == Group.ether || groupCounts[group.ordinal()] == 0)
+                continue;
+
+            key.write(group.ordinal() << 3 | groupCounts[group.ordinal()]); // Up to 4 of each
+
+            if (group == Group.radical)
+                for (int i = 0; i < getRadicalCount(); i++) // In bonding order, which orientation ties depend on
+                    appendVarintTo(key, radicalKeys[i]);
+        }
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(freeBondCount, substituents.stream().sorted().collect(Collectors.toList()));
+        if (hash == 0) {
+            int result = 31 * freeBondCount + Arrays.hashCode(groupCounts);
+
+            for (int i = 0; i < getRadicalCount(); i++)
+                result += radicalKeys[i] * 0x9E3779B9; // In any order, like equals()
+
+            hash = result != 0 ? result : 1;
+        }
+
+        return hash;
     }
 
     @Override
@@ -78,45 +128,160 @@ public class Carbon extends Nomenclature {
         if (freeBondCount != otherCarbon.freeBondCount)
             return false;
 
-        List<Substituent> sorted = substituents.stream().sorted().collect(Collectors.toList());
-        List<Substituent> otherSorted = otherCarbon.substituents.stream().sorted().collect(Collectors.toList());
+        if (!Arrays.equals(groupCounts, otherCarbon.groupCounts))
+            return false;
+
+        for (int i = 0; i < getRadicalCount(); i++) // In any order, there are up to maxRadicalCount of them
+            if (getAmountOf(radicalKeys[i]) != otherCarbon.getAmountOf(radicalKeys[i]))
+                return false;
 
-        return sorted.equals(otherSorted);
+        return true;
     }
 
     // Modifiers:
 
     public void bond(Group group) {
-        bond(new Substituent(group));
+        bond(Substituent.of(group));
     }
 
     void bond(Substituent substituent) {
         if (substituent.getBondCount() > freeBondCount) // TODO test NameToStructure
             throw new IllegalStateException(String.format(cantBondError, substituent, getStructure()));
 
-        substituents.add(substituent);
+        int oldFreeBondCount = freeBondCount;
+
+        add(substituent);
         freeBondCount -= substituent.getBondCount();
+
+        changed(substituent.getGroup(), 1, oldFreeBondCount);
     }
 
     public void unbond(Group group) {
-        unbond(new Substituent(group));
+        unbond(Substituent.of(group));
     }
 
     void unbond(Substituent substituent) {
+        int oldFreeBondCount = freeBondCount;
+
         freeBondCount += substituent.getBondCount();
-        remove(substituent);
+        boolean removed = take(substituent);
+
+        changed(substituent.getGroup(), removed ? -1 : 0, oldFreeBondCount);
     }
 
     void remove(Substituent substituent) {
-        substituents.remove(substituent);
+        boolean removed = take(substituent);
+        changed(substituent.getGroup(), removed ? -1 : 0, freeBondCount);
     }
 
-    void useBond() {
+    public void useBond() {
         freeBondCount--;
+        changed(null, 0, freeBondCount + 1);
     }
 
     public void freeBond() {
         freeBondCount++;
+        changed(null, 0, freeBondCount - 1);
+    }
+
+    // Private:
+
+    private static Carbon completeCarbonWith(Substituent... substituents) {
+        Carbon carbon = new Carbon(4);
+
+        for (Substituent substituent : substituents)
+            carbon.add(substituent);
+
+        return carbon;
+    }
+
+    private void add(Substituent substituent) {
+        if (substituent.getGroup() == Group.radical) {
+            if (radicalKeys.length == 0)
+                radicalKeys = new int[maxRadicalCount];
+
+            radicalKeys[getRadicalCount()] = radicalKeyOf(substituent);
+        }
+
+        groupCounts[substituent.getGroup().ordinal()]++;
+    }
+
+    private boolean take(Substituent substituent) {
+        int ordinal = substituent.getGroup().ordinal();
+
+        if (groupCounts[ordinal] == 0)
+            return false;
+
+        if (substituent.getGroup() == Group.radical) {
+            int radicalKey = radicalKeyOf(substituent);
+            int index = 0;
+
+            while (index < getRadicalCount() && radicalKeys[index] != radicalKey)
+                index++; // The first one bonded, like List.remove()
+
+            if (index == getRadicalCount())
+                return false;
+
+            System.arraycopy(radicalKeys, index + 1, radicalKeys, index, getRadicalCount() - index - 1);
+        }
+
+        groupCounts[ordinal]--;
+
+        return true;
+    }
+
+    private void changed(Group group, int amount, int oldFreeBondCount) { // Group is null if only bonds changed
+        hash = 0;
+
+        if (chain != null)
+            chain.countChange(group, amount, oldFreeBondCount, freeBondCount);
+    }
+
+    void addCountsTo(int[] chainGroupCounts, int sign) { // As in Chain
+        for (int i = 0; i < groupCounts.length; i++)
+            chainGroupCounts[i] += sign * groupCounts[i];
+
+        Group bond = bondGroupFor(freeBondCount);
+
+        if (bond != null)
+            chainGroupCounts[bond.ordinal()] += sign;
+    }
+
+    static Group bondGroupFor(int freeBondCount) { // Like isBondedTo()
+        if (freeBondCount == 1)
+            return Group.alkene; // -CO=
+
+        if (freeBondCount == 2)
+            return Group.alkyne; // -CH≡
+
+        return null;
+    }
+
+    private int getRadicalCount() {
+        return groupCounts[Group.radical.ordinal()];
+    }
+
+    private int getAmountOf(int radicalKey) {
+        int amount = 0;
+
+        for (int i = 0; i < getRadicalCount(); i++)
+            if (radicalKeys[i] == radicalKey)
+                amount++;
+
+        return amount;
+    }
+
+    private static void appendVarintTo(ByteArrayOutputStream key, int value) { // 7 bits per byte
+        while (value >= 0x80) {
+            key.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+
+        key.write(value);
+    }
+
+    private static int radicalKeyOf(Substituent radical) {
+        return Substituent.radicalKeyOf(radical.getCarbonCount(), radical.isIso());
     }
 
     // Text:
@@ -133,14 +298,16 @@ public class Carbon extends Nomenclature {
             return "";
 
         // "H", "H2", "H3"
-        return new Substituent(Group.hydrogen) + molecularQuantifierFor(hydrogenCount);
+        return Substituent.of(Group.hydrogen) + molecularQuantifierFor(hydrogenCount);
     }
 
     private StringBuilder getOtherSubstituentsStructure() {
-        Stream<Substituent> uniqueSubstituents = substituents.stream()
-                .filter(s -> s.getGroup() != Group.hydrogen && s.getGroup() != Group.ether).distinct();
+        List<Substituent> uniqueOrderedSubstituents = getSubstituents();
+        uniqueOrderedSubstituents.removeIf(s -> s.getGroup() == Group.hydrogen || s.getGroup() == Group.ether);
 
-        List<Substituent> uniqueOrderedSubstituents = uniqueSubstituents.sorted().collect(Collectors.toList());
+        for (int i = uniqueOrderedSubstituents.size() - 1; i > 0; i--)
+            if (uniqueOrderedSubstituents.get(i).equals(uniqueOrderedSubstituents.get(i - 1)))
+                uniqueOrderedSubstituents.remove(i); // They're sorted
 
         StringBuilder otherSubstituentsStructure;
 
@@ -189,7 +356,23 @@ public class Carbon extends Nomenclature {
             return "";
 
         // -O-
-        return new Substituent(Group.ether).toString();
+        return Substituent.of(Group.ether).toString();
+    }
+
+    String getSmiles(boolean isLast) {
+        // "C(Cl)(Cl)O" = "C" + "(Cl)(Cl)" + "O"
+        StringBuilder smiles = new StringBuilder("C");
+
+        List<Substituent> branches = getSubstituents();
+        branches.removeIf(s -> s.getGroup() == Group.hydrogen || s.getGroup() == Group.ether);
+
+        for (int i = 0; i < branches.size(); i++)
+            smiles.append(branches.get(i).getSmiles(isLast && i == branches.size() - 1));
+
+        if (isBondedTo(Group.ether))
+            smiles.append(Substituent.of(Group.ether).getSmiles(true)); // The chain goes on after it
+
+        return smiles.toString();
     }
 
     @Override
@@ -199,7 +382,19 @@ public class Carbon extends Nomenclature {
 
     // Getters and setters:
 
-    List<Substituent> getSubstituents() {
+    List<Substituent> getSubstituents() { // Sorted by group, and radicals like Substituent.compareTo()
+        List<Substituent> substituents = new ArrayList<>();
+
+        for (Group group : groups) {
+            if (group == Group.radical) {
+                int firstRadical = substituents.size();
+                addRadicalsTo(substituents);
+                substituents.subList(firstRadical, substituents.size()).sort(null); // CH2CH3 < CH(CH3)2 < CH2CH2CH3
+            }
+            else if (groupCounts[group.ordinal()] > 0)
+                substituents.addAll(Collections.nCopies(groupCounts[group.ordinal()], Substituent.of(group)));
+        }
+
         return substituents;
     }
 
@@ -208,7 +403,14 @@ public class Carbon extends Nomenclature {
     }
 
     void setFreeBondCount(int freeBondCount) {
+        int oldFreeBondCount = this.freeBondCount;
+
         this.freeBondCount = freeBondCount;
+        changed(null, 0, oldFreeBondCount);
+    }
+
+    void setChain(Chain chain) {
+        this.chain = chain;
     }
 
 }
@@ -1,14 +1,15 @@
 package com.quimify.organic.components;
 
-import com.quimify.organic.Nomenclature;
-
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class Chain extends Nomenclature {
+public class Chain extends ChainReader {
 
     private final List<Carbon> carbons;
 
+    private final int[] groupCounts; // By group ordinal, like getAmountOf()
+    private int groupMask; // Bit i is set if groupCounts[i] > 0
+
     // Error messages:
 
     private static final String cantBondCarbonError = "Can't bond carbon to the right of chain: %s.";
@@ -19,19 +20,19 @@ public class Chain extends Nomenclature {
     // Constructors:
 
     public Chain(int usedBondCount) {
-        carbons = new ArrayList<>();
-        carbons.add(new Carbon(usedBondCount));
+        this(new ArrayList<>(), new int[groups.length]);
+        addCarbon(new Carbon(usedBondCount));
     }
 
-    private Chain(Chain other) {
-        carbons = new ArrayList<>();
-        copyCarbons(other.carbons);
+    private Chain(List<Carbon> carbons, int[] groupCounts) {
+        this.carbons = Objects.requireNonNull(carbons);
+        this.groupCounts = Objects.requireNonNull(groupCounts);
     }
 
     // Public:
 
     public int getFreeBondCount() {
-        return getLastCarbon().getFreeBondCount();
+        return getFreeBondCountAt(getSize() - 1);
     }
 
     public boolean isDone() {
@@ -42,52 +43,42 @@ public class Chain extends Nomenclature {
         return carbons.size();
     }
 
-    public List<Group> getGroups() {
-        return Arrays.stream(Group.values()).filter(this::isBondedTo).collect(Collectors.toList());
-    }
-
-    public Optional<Group> getPriorityGroup() {
-        for (Group group : Group.values())
-            for (Carbon carbon : carbons)
-                if (carbon.isBondedTo(group))
-                    return Optional.of(group);
-
-        return Optional.empty();
-    }
-
-    public boolean isBondedTo(Group group) {
-        for (Carbon carbon : carbons)
-            if (carbon.isBondedTo(group))
-                return true;
-
-        return false;
-    }
-
     public int getAmountOf(Group group) {
-        int amount = 0;
-
-        for (Carbon carbon : carbons)
-            amount += carbon.getAmountOf(group);
-
-        return amount;
-    }
-
-    public List<Integer> getIndexesOf(Group group) {
-        return getIndexesOf(carbons.stream().map(c -> c.getAmountOf(group)).collect(Collectors.toList()));
+        return groupCounts[group.ordinal()];
     }
 
     public void bond(Substituent substituent) {
         getLastCarbon().bond(substituent);
     }
 
+    // Carbon by carbon, each one's sorted by group and radicals like Substituent.compareTo(), not in bonding order:
+
     public List<Substituent> getSubstituents() {
         List<Substituent> substituents = new ArrayList<>();
-        carbons.forEach(carbon -> substituents.addAll(carbon.getSubstituents()));
+
+        for (int i = 0; i < getSize(); i++)
+            substituents.addAll(getCarbon(i).getSubstituents());
+
         return substituents;
     }
 
     public List<Integer> getIndexesOf(Substituent substituent) {
-        return getIndexesOf(carbons.stream().map(c -> c.getAmountOf(substituent)).collect(Collectors.toList()));
+        return Arrays.stream(getIndexArrayOf(substituent)).boxed().collect(Collectors.toList());
+    }
+
+    public int[] getIndexArrayOf(Substituent substituent) { // Each index as many times as it's bonded there
+        int amount = 0;
+
+        for (int i = 0; i < getSize(); i++)
+            amount += getCarbon(i).getAmountOf(substituent);
+
+        int[] indexes = new int[amount];
+
+        for (int i = 0, next = 0; next < indexes.length; i++)
+            for (amount = getCarbon(i).getAmountOf(substituent); amount > 0; amount--)
+                indexes[next++] = i;
+
+        return indexes;
     }
 
     public boolean canBondCarbon() {
@@ -100,11 +91,12 @@ public class Chain extends Nomenclature {
 
         Carbon lastCarbon = getLastCarbon();
         lastCarbon.useBond();
-        carbons.add(new Carbon(lastCarbon.getFreeBondCount() + 1));
+        addCarbon(new Carbon(lastCarbon.getFreeBondCount() + 1));
     }
 
     public void removeCarbon(Carbon carbon) {
-        carbons.remove(carbon);
+        if (carbons.remove(carbon))
+            release(carbon);
     }
 
     public Carbon getCarbon(int index) {
@@ -112,11 +104,11 @@ public class Chain extends Nomenclature {
     }
 
     public Carbon getFirstCarbon() {
-        return carbons.get(0);
+        return getCarbon(0);
     }
 
     public Carbon getLastCarbon() {
-        return carbons.get(carbons.size() - 1);
+        return getCarbon(getSize() - 1);
     }
 
     public void correctChainToTheRight() {
@@ -130,76 +122,159 @@ public class Chain extends Nomenclature {
 
     public void correctChainToTheLeft() {
         // CH2(CH3)-CH2- → CH3-CH2-CH2-
-        int carbonIndex = 0;
+        // Carbons to the left of the current one always make a radical. After each correction, that radical is kept
+        // in place of them, and they are only replaced once at the end. Starting over would find nothing else to
+        // correct until the current carbon, so it carries on from there, in linear time.
+        Substituent leftRadical = null; // In place of carbons before firstKept
+        int firstKept = 0;
 
-        while (carbonIndex < carbons.size()) {
-            boolean correctionPerformed = correctChainToTheLeftIn(carbonIndex);
+        int current = 0;
 
-            // Check if past carbons could be part of a radical
-            if (couldBePartOfARadical(carbonIndex))
-                // If a correction was performed, start again at the beginning
-                // Otherwise, move to the next carbon
-                carbonIndex = correctionPerformed ? 0 : carbonIndex + 1;
+        while (current < carbons.size()) {
+            int carbonIndex = getCarbonsIn(leftRadical) + current - firstKept; // In the corrected chain
+            Substituent greatestRadical = correctChainToTheLeftIn(current, carbonIndex, leftRadical, firstKept);
+
+            if (greatestRadical != null) { // A correction was performed
+                leftRadical = greatestRadical;
+                firstKept = current;
+
+                // If the radical made as many carbons as were to the left, the current one is still at its index:
+                if (getCarbonsIn(greatestRadical) == carbonIndex && !couldBePartOfARadical(current, carbonIndex))
+                    break;
+            }
+            else if (couldBePartOfARadical(current, carbonIndex))
+                current++;
             else break; // Stop the loop if the current carbon can't be part of a radical
         }
+
+        if (leftRadical != null) { // Replaces the left part of the chain with the radical
+            List<Carbon> leftCarbons = carbons.subList(0, firstKept);
+            leftCarbons.forEach(this::release);
+            leftCarbons.clear();
+
+            List<Carbon> newCarbons = getCarbonsInRadical(leftRadical);
+            newCarbons.forEach(this::adopt);
+            carbons.addAll(0, newCarbons);
+        }
+    }
+
+    public ChainView getReversedView() { // Read-only, and it follows this chain's changes
+        return new ReversedView(this);
     }
 
-    public Chain getInverseOrientation() {
-        Chain reversed = new Chain(this);
+    @Override
+    public byte[] getKey() { // For CanonicalKey, from the first carbon
+        return super.getKey();
+    }
 
-        // Le da la vuelta a los carbonos:
-        Collections.reverse(reversed.carbons);
+    public byte[] getReversedKey() { // Like getKey(), but from the last carbon
+        return new ReversedView(this).getKey();
+    }
 
-        // Ajusta los enlaces (no son simétricos):
-        if (reversed.getSize() > 1) {
-            for (int i = 0, j = carbons.size() - 2; i < reversed.getSize() - 1; i++)
-                reversed.carbons.get(i).setFreeBondCount(carbons.get(j--).getFreeBondCount());
+    public Chain getInverseOrientation() { // A copy
+        ReversedView reversed = new ReversedView(this);
+        Chain copy = new Chain(new ArrayList<>(), new int[groups.length]);
 
-            // Se supone que no tiene enlaces sueltos:
-            reversed.carbons.get(reversed.getSize() - 1).setFreeBondCount(0);
+        for (int i = 0; i < reversed.getSize(); i++) {
+            Carbon carbon = new Carbon(reversed.getCarbon(i));
+            carbon.setFreeBondCount(reversed.getFreeBondCountAt(i));
+            copy.addCarbon(carbon);
         }
 
-        return reversed;
+        return copy;
     }
 
     public void reverseOrientation() {
-        Chain inverseOrientation = getInverseOrientation();
-        copyCarbons(inverseOrientation.carbons);
+        ReversedView reversed = new ReversedView(this);
+        int[] freeBondCounts = new int[getSize()];
+
+        for (int i = 0; i < freeBondCounts.length; i++)
+            freeBondCounts[i] = reversed.getFreeBondCountAt(i);
+
+        // Le da la vuelta a los carbonos, sin copiarlos:
+        Collections.reverse(carbons);
+
+        for (int i = 0; i < freeBondCounts.length; i++)
+            carbons.get(i).setFreeBondCount(freeBondCounts[i]);
     }
 
     // Private:
 
-    private void copyCarbons(List<Carbon> carbons) {
-        this.carbons.clear();
-        carbons.forEach(carbon -> this.carbons.add(new Carbon(carbon)));
+    int getFreeBondCountAt(int index) { // The bonds between it and the next carbon, plus any unused one
+        return getCarbon(index).getFreeBondCount();
     }
 
-    private List<Integer> getIndexesOf(List<Integer> amounts) {
-        List<Integer> indexes = new ArrayList<>();
+    int getGroupMask() {
+        return groupMask;
+    }
 
-        for (int i = 0; i < amounts.size(); i++)
-            indexes.addAll(Collections.nCopies(amounts.get(i), i));
+    private void addCarbon(Carbon carbon) {
+        carbons.add(carbon);
+        adopt(carbon);
+    }
 
-        return indexes;
+    // Group counts:
+
+    private void adopt(Carbon carbon) {
+        carbon.setChain(this);
+        carbon.addCountsTo(groupCounts, 1);
+        updateGroupMask();
     }
 
-    private boolean correctChainToTheLeftIn(int carbonIndex) {
+    private void release(Carbon carbon) {
+        carbon.setChain(null);
+        carbon.addCountsTo(groupCounts, -1);
+        updateGroupMask();
+    }
+
+    void countChange(Group group, int amount, int oldFreeBondCount, int newFreeBondCount) { // From its carbons
+        if (group != null)
+            addToCount(group, amount);
+
+        Group oldBond = Carbon.bondGroupFor(oldFreeBondCount);
+        Group newBond = Carbon.bondGroupFor(newFreeBondCount);
+
+        if (oldBond != null)
+            addToCount(oldBond, -1);
+
+        if (newBond != null)
+            addToCount(newBond, 1);
+    }
+
+    private void addToCount(Group group, int amount) {
+        int ordinal = group.ordinal();
+        groupCounts[ordinal] += amount;
+
+        if (groupCounts[ordinal] > 0)
+            groupMask |= 1 << ordinal;
+        else groupMask &= ~(1 << ordinal);
+    }
+
+    private void updateGroupMask() {
+        groupMask = 0;
+
+        for (int i = 0; i < groupCounts.length; i++)
+            if (groupCounts[i] > 0)
+                groupMask |= 1 << i;
+    }
+
+    private Substituent correctChainToTheLeftIn(int current, int carbonIndex, Substituent leftRadical, int firstKept) {
         // Pre-condition: any carbon to the left could be part of a radical
-        Carbon carbon = carbons.get(carbonIndex);
+        Carbon carbon = carbons.get(current);
 
         if (!carbon.isBondedTo(Group.radical))
-            return false;
+            return null;
 
         Substituent greatestRadical = getGreatestRadicalIn(carbon);
 
         // Replaces the greatest radical with the left part of the chain:
 
         if (carbonIndex > 0) {
-            Substituent leftSideRadical = getRadicalToTheLeftOf(carbonIndex);
+            Substituent leftSideRadical = getRadicalToTheLeftOf(carbonIndex, leftRadical, firstKept);
 
             // Calculates if that radical would make a longer chain:
             if (greatestRadical.compareTo(leftSideRadical) <= 0)
-                return false;
+                return null;
 
             // Replaces the greatestRadical with the newly created:
             carbon.unbond(greatestRadical);
@@ -207,63 +282,65 @@ public class Chain extends Nomenclature {
         }
         else carbon.remove(greatestRadical); // There is no left side of the chain
 
-        // Replaces the left part of the chain with the greatest radical:
-
-        List<Carbon> newCarbons = getCarbonsInRadical(greatestRadical);
-
-        // Substitutes the current chain with the new one:
-
-        newCarbons.addAll(carbons.subList(carbonIndex, carbons.size())); // The rest of it
-
-        carbons.clear();
-        carbons.addAll(newCarbons);
-
-        return true;
+        return greatestRadical; // Which makes the left part of the chain now
     }
 
     private Substituent getGreatestRadicalIn(Carbon carbon) {
         if (!carbon.isBondedTo(Group.radical))
             throw new IllegalArgumentException(String.format(noRadicalBondedError, carbon));
 
-        List<Substituent> radicals = new ArrayList<>(carbon.getSubstituents());
-        radicals.removeIf(substituent -> substituent.getGroup() != Group.radical);
-        Collections.sort(radicals);
-
-        return radicals.get(radicals.size() - 1);
+        return carbon.getGreatestRadical();
     }
 
-    private Substituent getRadicalToTheLeftOf(int carbonIndex) {
+    private Substituent getRadicalToTheLeftOf(int carbonIndex, Substituent leftRadical, int firstKept) {
         if (carbonIndex == 0)
             throw new IllegalArgumentException(nothingToTheLeftError);
 
-        if (carbonIndex > 1 && carbons.get(1).equals(Carbon.CHCH3))
+        if (carbonIndex > 1 && isSecondCarbonCHCH3(leftRadical, firstKept))
             return Substituent.radical(carbonIndex + 1, true);
 
         return Substituent.radical(carbonIndex);
     }
 
+    private boolean isSecondCarbonCHCH3(Substituent leftRadical, int firstKept) {
+        int carbonsInLeftRadical = getCarbonsIn(leftRadical);
+
+        if (carbonsInLeftRadical > 1)
+            return leftRadical.isIso(); // CH3-CH(CH3)-
+
+        return carbons.get(firstKept + 1 - carbonsInLeftRadical).equals(Carbon.CHCH3);
+    }
+
+    private static int getCarbonsIn(Substituent radical) { // In the chain, as in getCarbonsInRadical()
+        if (radical == null)
+            return 0;
+
+        return radical.isIso() ? radical.getCarbonCount() - 1 : radical.getCarbonCount(); // The iso one is bonded
+    }
+
     private List<Carbon> getCarbonsInRadical(Substituent radical) {
         if (radical.getGroup() != Group.radical)
             throw new IllegalArgumentException(String.format(notRadicalError, radical.getGroup()));
 
         List<Carbon> carbonsInRadical = new ArrayList<>();
-        carbonsInRadical.add(Carbon.CH3);
+        carbonsInRadical.add(new Carbon(Carbon.CH3)); // Copied, as they can be modified later
 
         int carbonCount = 1; // CH3-
 
         if (radical.isIso()) {
-            carbonsInRadical.add(Carbon.CHCH3); // CH3-CH(CH3)-
+            carbonsInRadical.add(new Carbon(Carbon.CHCH3)); // CH3-CH(CH3)-
             carbonCount += 2; // It had a methyl bonded to it
         }
 
         int remaining = radical.getCarbonCount() - carbonCount;
-        carbonsInRadical.addAll(Collections.nCopies(remaining, Carbon.CH2)); // CH3-CH(CH3)-CH2-
+        for (int i = 0; i < remaining; i++)
+            carbonsInRadical.add(new Carbon(Carbon.CH2)); // CH3-CH(CH3)-CH2-
 
         return carbonsInRadical;
     }
 
-    private boolean couldBePartOfARadical(int carbonIndex) {
-        Carbon carbon = carbons.get(carbonIndex);
+    private boolean couldBePartOfARadical(int current, int carbonIndex) {
+        Carbon carbon = carbons.get(current);
 
         if (carbonIndex == 0)
             return carbon.equals(Carbon.CH3);
@@ -274,36 +351,65 @@ public class Chain extends Nomenclature {
         return carbon.equals(Carbon.CH2);
     }
 
-    // Text:
+    // Views:
 
-    private String getStructure() {
-        StringBuilder formula = new StringBuilder();
+    // This class reads a chain from its last carbon to its first one, like getInverseOrientation() but without copying
+    // any carbon. It only has index-based queries, which map both indexes and bonds on the fly, because the carbons
+    // themselves keep the free bonds of the chain they're in.
 
-        if (carbons.size() > 0) {
-            // Se escribe el primero:
-            Carbon firstCarbon = carbons.get(0);
-            formula.append(firstCarbon); // Como CH
+    private static final class ReversedView extends ChainReader {
 
-            // Se escribe el resto con los enlaces libres del anterior:
-            int previousFreeBonds = firstCarbon.getFreeBondCount();
-            for (int i = 1; i < carbons.size(); i++) {
-                formula.append(bondSymbolFor(previousFreeBonds)); // Como CH=
-                formula.append(carbons.get(i)); // Como CH=CH
+        private final Chain chain;
 
-                previousFreeBonds = carbons.get(i).getFreeBondCount();
-            }
+        ReversedView(Chain chain) {
+            this.chain = chain;
+        }
+
+        // Mapping:
 
-            // Se escribe los enlaces libres del último:
-            if (previousFreeBonds > 0 && previousFreeBonds < 4) // Ni está completo ni es el primero vacío
-                formula.append(bondSymbolFor(previousFreeBonds - 1)); // Como CH=CH-CH2-C≡
+        @Override
+        public int getSize() {
+            return chain.getSize();
         }
 
-        return formula.toString();
-    }
+        @Override
+        Carbon getCarbon(int index) {
+            return chain.getCarbon(getSize() - 1 - index);
+        }
+
+        @Override
+        int getFreeBondCountAt(int index) {
+            if (getSize() == 1)
+                return chain.getFreeBondCountAt(0);
+
+            if (index == getSize() - 1)
+                return 0; // Se supone que no tiene enlaces sueltos
+
+            return chain.getFreeBondCountAt(getSize() - 2 - index); // Los enlaces no son simétricos
+        }
+
+        @Override
+        public int getAmountOf(Group group) {
+            if (group == getDroppedBond())
+                return chain.getAmountOf(group) - 1;
+
+            return chain.getAmountOf(group);
+        }
+
+        @Override
+        int getGroupMask() {
+            Group droppedBond = getDroppedBond();
+
+            if (droppedBond != null && getAmountOf(droppedBond) == 0)
+                return chain.getGroupMask() & ~(1 << droppedBond.ordinal());
+
+            return chain.getGroupMask();
+        }
+
+        private Group getDroppedBond() { // The loose bond of the original last carbon, if any
+            return getSize() > 1 ? Carbon.bondGroupFor(chain.getFreeBondCountAt(getSize() - 1)) : null;
+        }
 
-    @Override
-    public String toString() {
-        return getStructure();
     }
 
 }
@@ -0,0 +1,168 @@
+package com.quimify.organic.components;
+
+import com.quimify.organic.Nomenclature;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// This class implements the read-only queries of chains carbon by carbon, so they're shared by Chain and its reversed
+// views. Each index is read through getCarbon() and getFreeBondCountAt(), which views map to the viewed chain.
+
+abstract class ChainReader extends Nomenclature implements ChainView {
+
+    // Constants:
+
+    static final Group[] groups = Group.values();
+
+    // Orientation:
+
+    abstract Carbon getCarbon(int index); // Its own free bonds might not be the ones at this index, if it's a view
+
+    abstract int getFreeBondCountAt(int index); // The bonds between it and the next carbon, plus any unused one
+
+    abstract int getGroupMask(); // Bit i is set if getAmountOf() the group with ordinal i is positive
+
+    // Queries:
+
+    public List<Group> getGroups() {
+        List<Group> bondedGroups = new ArrayList<>(Integer.bitCount(getGroupMask()));
+
+        for (int mask = getGroupMask(); mask != 0; mask &= mask - 1) // By priority
+            bondedGroups.add(groups[Integer.numberOfTrailingZeros(mask)]);
+
+        return bondedGroups;
+    }
+
+    public Optional<Group> getPriorityGroup() {
+        if (getGroupMask() == 0)
+            return Optional.empty();
+
+        return Optional.of(groups[Integer.numberOfTrailingZeros(getGroupMask())]);
+    }
+
+    public boolean isBondedTo(Group group) {
+        return (getGroupMask() & 1 << group.ordinal()) != 0;
+    }
+
+    public List<Integer> getIndexesOf(Group group) {
+        return Arrays.stream(getIndexArrayOf(group)).boxed().collect(Collectors.toList());
+    }
+
+    public int[] getIndexArrayOf(Group group) { // Each index as many times as the group is bonded there
+        int[] indexes = new int[getAmountOf(group)];
+
+        for (int i = 0, next = 0; next < indexes.length; i++)
+            for (int amount = getAmountAt(i, group); amount > 0; amount--)
+                indexes[next++] = i;
+
+        return indexes;
+    }
+
+    public int getAmountAt(int index, Group group) { // Like getIndexArrayOf(), one carbon at a time
+        if (isBond(group))
+            return Carbon.bondGroupFor(getFreeBondCountAt(index)) == group ? 1 : 0;
+
+        return getCarbon(index).getAmountOf(group);
+    }
+
+    public int getAmountAt(int index, Substituent substituent) {
+        return getCarbon(index).getAmountOf(substituent);
+    }
+
+    public int getIndexSumOf(Group group) {
+        int sum = 0;
+
+        for (int i = 0; i < getSize(); i++)
+            sum += i * getAmountAt(i, group);
+
+        return sum;
+    }
+
+    public int getInverseIndexSumOf(Group group) { // As in getInverseOrientation(), without building it
+        int sum = 0;
+
+        if (isBond(group)) { // Bonds are indexed by their first carbon, so they're one place off when reversed
+            for (int i = 0; i < getSize() - 1; i++)
+                sum += (getSize() - 2 - i) * getAmountAt(i, group);
+        }
+        else for (int i = 0; i < getSize(); i++)
+            sum += (getSize() - 1 - i) * getAmountAt(i, group);
+
+        return sum;
+    }
+
+    public int getSubstituentCount() { // Like getSubstituents().size(), without building it
+        int count = 0;
+
+        for (Group group : groups)
+            if (!isBond(group))
+                count += getAmountOf(group);
+
+        return count;
+    }
+
+    public void addRadicalsTo(List<Substituent> radicals) { // Carbon by carbon, each one's in bonding order
+        for (int i = 0; i < getSize(); i++)
+            getCarbon(i).addRadicalsTo(radicals);
+    }
+
+    byte[] getKey() { // Carbon by carbon, in this orientation, without the ether
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+
+        for (int i = 0; i < getSize(); i++) {
+            key.write(0xF0 | getFreeBondCountAt(i)); // Not a group, so each carbon can be told apart
+            getCarbon(i).appendKeyTo(key);
+        }
+
+        return key.toByteArray();
+    }
+
+    // Text:
+
+    String getStructure() {
+        StringBuilder formula = new StringBuilder();
+
+        if (getSize() > 0) {
+            // Se escribe el primero:
+            formula.append(getCarbon(0)); // Como CH
+
+            // Se escribe el resto con los enlaces libres del anterior:
+            int previousFreeBonds = getFreeBondCountAt(0);
+            for (int i = 1; i < getSize(); i++) {
+                formula.append(bondSymbolFor(previousFreeBonds)); // Como CH=
+                formula.append(getCarbon(i)); // Como CH=CH
+
+                previousFreeBonds = getFreeBondCountAt(i);
+            }
+
+            // Se escribe los enlaces libres del último:
+            if (previousFreeBonds > 0 && previousFreeBonds < 4) // Ni está completo ni es el primero vacío
+                formula.append(bondSymbolFor(previousFreeBonds - 1)); // Como CH=CH-CH2-C≡
+        }
+
+        return formula.toString();
+    }
+
+    public String getSmiles() {
+        StringBuilder smiles = new StringBuilder();
+
+        for (int i = 0; i < getSize(); i++) {
+            Carbon carbon = getCarbon(i);
+
+            if (i > 0)
+                smiles.append(smilesBondSymbolFor(getFreeBondCountAt(i - 1))); // Like "C=C"
+
+            boolean isLast = i == getSize() - 1 && !carbon.isBondedTo(Group.ether);
+            smiles.append(carbon.getSmiles(isLast));
+        }
+
+        return smiles.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getStructure();
+    }
+
+}
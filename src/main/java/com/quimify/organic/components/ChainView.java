@@ -0,0 +1,39 @@
+package com.quimify.organic.components;
+
+import java.util.List;
+import java.util.Optional;
+
+// This interface represents the read-only, index-based queries of a chain. Chain implements it, and so do its reversed
+// views, which read the same carbons from the last one to the first one.
+
+public interface ChainView {
+
+    int getSize();
+
+    List<Group> getGroups();
+
+    Optional<Group> getPriorityGroup();
+
+    boolean isBondedTo(Group group);
+
+    int getAmountOf(Group group);
+
+    List<Integer> getIndexesOf(Group group);
+
+    int[] getIndexArrayOf(Group group);
+
+    int getAmountAt(int index, Group group);
+
+    int getAmountAt(int index, Substituent substituent);
+
+    int getIndexSumOf(Group group);
+
+    int getInverseIndexSumOf(Group group);
+
+    int getSubstituentCount();
+
+    void addRadicalsTo(List<Substituent> radicals);
+
+    String getSmiles();
+
+}
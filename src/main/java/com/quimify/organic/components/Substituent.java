@@ -2,7 +2,9 @@ package com.quimify.organic.components;
 
 import com.quimify.organic.Nomenclature;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Substituent extends Nomenclature implements Comparable<Substituent> {
 
@@ -26,6 +28,14 @@ public class Substituent extends Nomenclature implements Comparable<Substituent>
     private static final String isoRadicalTooShortError = "Isotopic radicals must have at least 3 carbons.";
     private static final String unknownStructureError = "Unknown structure for substituent with functional group: %s.";
 
+    // Shared instances, as they are immutable:
+
+    private static final Substituent[] groupSubstituents = newGroupSubstituents(); // By group ordinal
+
+    private static final int sharedRadicalCarbonCount = 64; // Longer ones are shared on demand
+    private static final Substituent[] sharedRadicals = newSharedRadicals(); // By radical key
+    private static final Map<Integer, Substituent> longRadicals = new ConcurrentHashMap<>();
+
     // Constructors:
 
     private Substituent(Group group, int bondCount, int carbonCount, boolean iso) {
@@ -72,6 +82,18 @@ public class Substituent extends Nomenclature implements Comparable<Substituent>
         this.iso = false;
     }
 
+    public static Substituent of(Group group) { // Like the constructor, but shared
+        if (group == Group.radical)
+            throw new IllegalArgumentException(String.format(noUniqueError, Group.radical));
+
+        Substituent substituent = groupSubstituents[group.ordinal()];
+
+        if (substituent == null)
+            throw new IllegalArgumentException(String.format(noSuchError, group));
+
+        return substituent;
+    }
+
     public static Substituent radical(int carbonCount, boolean iso) {
         if (!iso && carbonCount < 1)
             throw new IllegalArgumentException(radicalTooShortError);
@@ -79,15 +101,49 @@ public class Substituent extends Nomenclature implements Comparable<Substituent>
         if (iso && carbonCount < 3)
             throw new IllegalArgumentException(isoRadicalTooShortError);
 
-        return new Substituent(Group.radical, 1, carbonCount, iso);
+        int radicalKey = radicalKeyOf(carbonCount, iso);
+
+        if (radicalKey < sharedRadicals.length)
+            return sharedRadicals[radicalKey];
+
+        return longRadicals.computeIfAbsent(radicalKey, key -> new Substituent(Group.radical, 1, carbonCount, iso));
     }
 
     public static Substituent radical(int carbonCount) {
         return Substituent.radical(carbonCount, false);
     }
 
-    Substituent(Substituent other) {
-        this(other.group, other.bondCount, other.carbonCount, other.iso);
+    private static Substituent[] newGroupSubstituents() {
+        Substituent[] substituents = new Substituent[Group.values().length];
+
+        for (Group group : Group.values())
+            if (group != Group.radical && !isBond(group))
+                substituents[group.ordinal()] = new Substituent(group);
+
+        return substituents;
+    }
+
+    private static Substituent[] newSharedRadicals() {
+        Substituent[] radicals = new Substituent[radicalKeyOf(sharedRadicalCarbonCount, false)];
+
+        for (int carbonCount = 1; carbonCount < sharedRadicalCarbonCount; carbonCount++) {
+            radicals[radicalKeyOf(carbonCount, false)] = new Substituent(Group.radical, 1, carbonCount, false);
+
+            if (carbonCount >= 3)
+                radicals[radicalKeyOf(carbonCount, true)] = new Substituent(Group.radical, 1, carbonCount, true);
+        }
+
+        return radicals;
+    }
+
+    // Radical keys:
+
+    public static int radicalKeyOf(int carbonCount, boolean iso) { // So one more carbon adds radicalKeyOf(1, false)
+        return carbonCount << 1 | (iso ? 1 : 0);
+    }
+
+    public static Substituent radicalFor(int radicalKey) {
+        return radical(radicalKey >>> 1, (radicalKey & 1) == 1);
     }
 
     // Queries:
@@ -116,6 +172,9 @@ public class Substituent extends Nomenclature implements Comparable<Substituent>
 
     @Override
     public boolean equals(Object other) {
+        if (this == other)
+            return true; // Shared instances
+
         if (other == null || getClass() != other.getClass())
             return false;
 
@@ -180,6 +239,60 @@ public class Substituent extends Nomenclature implements Comparable<Substituent>
         return "CH2".repeat(Math.max(0, carbonCount - 1)) + "CH3";
     }
 
+    String getSmiles(boolean isLast) {
+        // Written as branches of the carbon, but the last atom in the molecule needs no parentheses
+        switch (group) {
+            case acid:
+                return isLast ? "(=O)O" : "(=O)(O)";
+            case amide:
+                return isLast ? "(=O)N" : "(=O)(N)";
+            case hydrogen:
+                return ""; // Implicit
+            default:
+                return isLast ? getBranchSmiles() : "(" + getBranchSmiles() + ")";
+        }
+    }
+
+    private String getBranchSmiles() {
+        switch (group) {
+            case carbamoyl:
+                return "C(=O)N";
+            case nitrile:
+                return "#N";
+            case cyanide:
+                return "C#N";
+            case aldehyde:
+            case ketone:
+                return "=O";
+            case alcohol:
+            case ether:
+                return "O";
+            case amine:
+                return "N";
+            case nitro:
+                return "[N+](=O)[O-]";
+            case bromine:
+                return "Br";
+            case chlorine:
+                return "Cl";
+            case fluorine:
+                return "F";
+            case iodine:
+                return "I";
+            case radical:
+                return getRadicalSmiles(carbonCount, iso);
+            default:
+                throw new IllegalArgumentException(unknownStructureError);
+        }
+    }
+
+    private String getRadicalSmiles(int carbonCount, boolean iso) {
+        if (iso)
+            return "C".repeat(Math.max(0, carbonCount - 3)) + "C(C)C";
+
+        return "C".repeat(carbonCount);
+    }
+
     @Override
     public String toString() {
         return getStructure();
@@ -0,0 +1,97 @@
+package com.quimify.organic.molecules;
+
+import com.quimify.organic.components.Atom;
+import com.quimify.organic.components.Element;
+
+import java.util.Arrays;
+
+// This class represents the atoms of a molecule and their bonds, indexed by integers:
+// - Element of atom i: elements[i]
+// - Atoms bonded to atom i: bondedAtoms[bondOffsets[i]], ..., bondedAtoms[bondOffsets[i + 1] - 1]
+
+final class MolecularGraph {
+
+    private final byte[] elements; // Element ordinals
+    private final int[] bondOffsets;
+    private final int[] bondedAtoms;
+    private final long[] signatures; // As in Atom.getSignature()
+
+    // Constants:
+
+    private static final Element[] elementValues = Element.values();
+
+    // Constructor:
+
+    MolecularGraph(byte[] elements, int atomCount, int[] bondedPairs, int bondCount) {
+        this.elements = elements.length == atomCount ? elements : Arrays.copyOf(elements, atomCount);
+        this.bondOffsets = new int[atomCount + 1];
+        this.bondedAtoms = new int[2 * bondCount];
+
+        for (int i = 0; i < 2 * bondCount; i++) // Counting bonds of each atom
+            bondOffsets[bondedPairs[i] + 1]++;
+
+        for (int i = 0; i < atomCount; i++) // Accumulating them
+            bondOffsets[i + 1] += bondOffsets[i];
+
+        int[] nextSlot = Arrays.copyOf(bondOffsets, atomCount);
+
+        for (int i = 0; i < bondCount; i++) { // Keeps the order in which bonds were read
+            int first = bondedPairs[2 * i], second = bondedPairs[2 * i + 1];
+
+            bondedAtoms[nextSlot[first]++] = second;
+            bondedAtoms[nextSlot[second]++] = first;
+        }
+
+        this.signatures = new long[atomCount];
+
+        for (int i = 0; i < atomCount; i++) {
+            signatures[i] = Atom.signatureOf(getElement(i));
+
+            for (int bond = bondOffsets[i]; bond < bondOffsets[i + 1]; bond++)
+                signatures[i] = Atom.addBondedTo(signatures[i], getElement(bondedAtoms[bond]));
+        }
+    }
+
+    // Queries:
+
+    int getAtomCount() {
+        return elements.length;
+    }
+
+    Element getElement(int atom) {
+        return elementValues[elements[atom]];
+    }
+
+    boolean is(int atom, Element element) {
+        return elements[atom] == element.ordinal();
+    }
+
+    int getBondSlotCount() { // Each bond has one slot per atom
+        return bondedAtoms.length;
+    }
+
+    int getBondCount(int atom) {
+        return bondOffsets[atom + 1] - bondOffsets[atom];
+    }
+
+    int getFirstBond(int atom) {
+        return bondOffsets[atom];
+    }
+
+    int getEndBond(int atom) { // Exclusive
+        return bondOffsets[atom + 1];
+    }
+
+    int getBondedAtom(int bond) {
+        return bondedAtoms[bond];
+    }
+
+    int getAmountOf(int atom, Element element) {
+        return Atom.getAmountIn(signatures[atom], element);
+    }
+
+    long getSignature(int atom) {
+        return signatures[atom];
+    }
+
+}
@@ -4,22 +4,21 @@ import com.quimify.organic.components.*;
 import com.quimify.organic.molecules.openchain.Ether;
 import com.quimify.organic.molecules.openchain.OpenChain;
 import com.quimify.organic.molecules.openchain.Simple;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.StringReader;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 // This class builds molecules from serialized data to convert them into known molecule types.
 
 public class Molecule {
 
-    private final List<Atom> atoms;
+    private final MolecularGraph graph;
+    private final byte[] bondedAtomFeatures; // For each bond slot, the features of the atom it points to
+    private final int[] bondedRadicalSizes; // For each bond slot, the size of the radical it points to, if it's one
 
     // Constants:
 
@@ -36,302 +35,497 @@ public class Molecule {
             Atom.I, Group.iodine
     );
 
+    private static final long[] simpleBondableSignatures = signaturesOf(Simple.bondableAtoms);
+    private static final long[] etherBondableSignatures = signaturesOf(Ether.bondableAtoms);
+
+    private static final long[] groupSignatures = signaturesOf(List.copyOf(atomToGroup.keySet()));
+    private static final Group[] signatureGroups = groupsOf(List.copyOf(atomToGroup.keySet()));
+
+    private static final XMLInputFactory xmlInputFactory = newXmlInputFactory();
+
+    // Features of an atom, as seen from its parent:
+
+    private static final byte computedFeatures = 1;
+    private static final byte simpleSubstituent = 1 << 1; // Like -OH
+    private static final byte etherSubstituent = 1 << 2; // Like -Cl
+    private static final byte etherOxygen = 1 << 3; // -O-C
+    private static final byte radicalCarbon = 1 << 4; // Like -CH2-CH3
+
+    // Radical sizes, as Substituent.radicalKeyOf():
+
+    private static final int unknownSize = 0;
+    private static final int notRadical = -1;
+    private static final int methylSize = Substituent.radicalKeyOf(1, false); // -CH3
+    private static final int isopropylSize = Substituent.radicalKeyOf(3, true); // -CH(CH3)2
+    private static final int methyleneSize = Substituent.radicalKeyOf(1, false); // Each -CH2- link
+
+    // Open chain classes:
+
+    private static final int noClass = 0;
+    private static final int simpleClass = 1;
+    private static final int etherClass = 2;
+
     // Error messages:
 
     private static final String unknownFunctionalGroupError = "Unknown functional group of atom with element: %s.";
 
     // Constructor:
 
-    private Molecule(List<Atom> atoms) {
-        this.atoms = atoms;
+    private Molecule(MolecularGraph graph) {
+        this.graph = graph;
+        this.bondedAtomFeatures = new byte[graph.getBondSlotCount()];
+        this.bondedRadicalSizes = new int[graph.getBondSlotCount()];
     }
 
-    public static Optional<Molecule> from(String cml, String smiles) throws Exception {
+    public static Optional<Molecule> from(String smiles) {
         if (smiles.matches(".*[0-9].*"))
             return Optional.empty(); // SMILES uses digits only for cycles
 
-        DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-        Document cmlDocument = documentBuilder.parse(new InputSource(new StringReader(cml)));
-
-        Optional<Map<Integer, Atom>> idToAtom = collectAtoms(cmlDocument);
+        try {
+            return SmilesReader.read(smiles).map(Molecule::new);
+        } catch (IllegalArgumentException malformedSmiles) {
+            return Optional.empty(); // It's user input too
+        }
+    }
 
-        if (idToAtom.isEmpty())
-            return Optional.empty(); // There were strictly inorganic atoms
+    public static Optional<Molecule> from(String cml, String smiles) throws Exception {
+        if (smiles.matches(".*[0-9].*"))
+            return Optional.empty(); // SMILES uses digits only for cycles
 
-        List<Atom> atoms = bondAtoms(idToAtom.get(), cmlDocument);
+        XMLStreamReader cmlReader = xmlInputFactory.createXMLStreamReader(new StringReader(cml));
 
-        return Optional.of(new Molecule(atoms));
+        try {
+            return readGraph(cmlReader).map(Molecule::new);
+        } finally {
+            cmlReader.close();
+        }
     }
 
-    private static Optional<Map<Integer, Atom>> collectAtoms(Document cmlDocument) {
-        Map<Integer, Atom> idToAtom = new HashMap<>();
+    private static Optional<MolecularGraph> readGraph(XMLStreamReader cmlReader) throws XMLStreamException {
+        Map<Integer, Element> idToElement = new TreeMap<>(); // Atoms are indexed in the order of their ids
+        List<int[]> bondedIds = new ArrayList<>();
 
-        NodeList cmlAtoms = cmlDocument.getElementsByTagName("atom");
-        for (int i = 0; i < cmlAtoms.getLength(); i++) {
-            org.w3c.dom.Element cmlAtom = (org.w3c.dom.Element) cmlAtoms.item(i);
+        while (cmlReader.hasNext()) {
+            if (cmlReader.next() != XMLStreamConstants.START_ELEMENT)
+                continue;
 
-            int id = Integer.parseInt(cmlAtom.getAttribute("id").replace("a", ""));
-            String symbol = cmlAtom.getAttribute("elementType");
+            String tag = cmlReader.getLocalName();
 
-            Element element;
-            try {
-                element = Element.valueOf(symbol);
-            } catch (IllegalArgumentException ignore) {
-                return Optional.empty(); // Probably not an organic symbol
+            if (tag.equals("atom")) {
+                int id = Integer.parseInt(cmlReader.getAttributeValue(null, "id").replace("a", ""));
+                String symbol = cmlReader.getAttributeValue(null, "elementType");
+
+                Element element;
+                try {
+                    element = Element.valueOf(symbol);
+                } catch (IllegalArgumentException ignore) {
+                    return Optional.empty(); // Probably not an organic symbol
+                }
+
+                idToElement.put(id, element);
+            }
+            else if (tag.equals("bond")) {
+                String[] idsAsStrings = cmlReader.getAttributeValue(null, "id").replace("a", "").split("_");
+                bondedIds.add(new int[]{Integer.parseInt(idsAsStrings[0]), Integer.parseInt(idsAsStrings[1])});
             }
+        }
+
+        Map<Integer, Integer> idToIndex = new HashMap<>();
+        byte[] elements = new byte[idToElement.size()];
 
-            idToAtom.put(id, new Atom(element));
+        for (Map.Entry<Integer, Element> atom : idToElement.entrySet()) {
+            elements[idToIndex.size()] = (byte) atom.getValue().ordinal();
+            idToIndex.put(atom.getKey(), idToIndex.size());
         }
 
-        return Optional.of(idToAtom);
-    }
+        int[] bondedPairs = new int[2 * bondedIds.size()];
 
-    private static List<Atom> bondAtoms(Map<Integer, Atom> idToAtom, Document cmlXML) {
-        NodeList bondsXML = cmlXML.getElementsByTagName("bond");
+        for (int i = 0; i < bondedIds.size(); i++) {
+            bondedPairs[2 * i] = idToIndex.get(bondedIds.get(i)[0]);
+            bondedPairs[2 * i + 1] = idToIndex.get(bondedIds.get(i)[1]);
+        }
 
-        for (int i = 0; i < bondsXML.getLength(); i++) {
-            org.w3c.dom.Element bondXML = (org.w3c.dom.Element) bondsXML.item(i);
+        return Optional.of(new MolecularGraph(elements, elements.length, bondedPairs, bondedIds.size()));
+    }
 
-            String[] idsAsStrings = bondXML.getAttribute("id").replace("a", "").split("_");
+    private static long[] signaturesOf(List<Atom> atoms) {
+        return atoms.stream().mapToLong(Atom::getSignature).toArray();
+    }
 
-            int[] ids = {Integer.parseInt(idsAsStrings[0]), Integer.parseInt(idsAsStrings[1])};
-            Atom[] atoms = {idToAtom.get(ids[0]), idToAtom.get(ids[1])};
+    private static Group[] groupsOf(List<Atom> atoms) {
+        return atoms.stream().map(atomToGroup::get).toArray(Group[]::new);
+    }
 
-            atoms[0].bond(atoms[1]);
-            atoms[1].bond(atoms[0]);
-        }
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
 
-        return new ArrayList<>(idToAtom.values());
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // CML from OPSIN has none
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return xmlInputFactory;
     }
 
     // Queries:
 
     public Optional<OpenChain> toOpenChain() {
-        List<Atom> originCarbons = getOriginCarbons();
+        int[] carbonTips = getCarbonTips();
+
+        List<Substituent> etherSteps = null; // From the first carbon tip that makes an ether
+
+        for (int carbonTip : carbonTips) {
+            boolean couldBeEther = etherSteps == null;
 
-        Optional<Simple> simple = toSimple(originCarbons);
+            if (carbonTips.length > 2 && isBondedToOC(carbonTip))
+                couldBeEther = false; // It's C(...)C-O-C(...)C
 
-        if (simple.isPresent())
-            return Optional.of(simple.get());
+            List<Substituent> steps = new ArrayList<>();
+            int openChainClass = classifyFrom(carbonTip, couldBeEther, steps);
 
-        Optional<Ether> ether = toEther(originCarbons);
+            if (openChainClass == simpleClass) // Any simple one goes before ethers
+                return Optional.of(build(new Simple(), steps));
+
+            if (openChainClass == etherClass)
+                etherSteps = steps;
+        }
 
-        if (ether.isPresent())
-            return Optional.of(ether.get());
+        if (etherSteps != null)
+            return Optional.of(build(new Ether(), etherSteps));
 
         return Optional.empty();
     }
 
     // Private:
 
-    private List<Atom> getOriginCarbons() {
-        Stream<Atom> carbonTips = atoms.stream().filter(Molecule::isCarbonTip);
-        return carbonTips.map(carbonTip -> asOrigin(carbonTip, null)).collect(Collectors.toList());
-    }
+    // The molecule is traversed as rooted at a carbon tip, which has no parent (-1). Every other atom is reached from
+    // its parent, so the atoms bonded to it are all of its neighbors but the parent. Nothing is copied to root it.
+
+    private int[] getCarbonTips() {
+        int[] carbonTips = new int[graph.getAtomCount()];
+        int carbonTipCount = 0;
+
+        for (int atom = 0; atom < graph.getAtomCount(); atom++)
+            if (isCarbonTip(atom))
+                carbonTips[carbonTipCount++] = atom;
 
-    private static boolean isCarbonTip(Atom atom) {
-        return atom.getElement() == Element.C && atom.getAmountOf(Element.C) < 2;
+        return Arrays.copyOf(carbonTips, carbonTipCount);
     }
 
-    private static Atom asOrigin(Atom atom, Atom parent) {
-        Atom origin = new Atom(atom.getElement());
+    private boolean isCarbonTip(int atom) {
+        return graph.is(atom, Element.C) && graph.getAmountOf(atom, Element.C) < 2;
+    }
 
-        for (Atom bondedAtom : atom.getBondedAtoms())
-            if (bondedAtom != parent)
-                origin.bond(asOrigin(bondedAtom, atom));
+    private boolean isBondedToOC(int carbonTip) {
+        for (int bond = graph.getFirstBond(carbonTip); bond < graph.getEndBond(carbonTip); bond++)
+            if (hasFeature(bond, carbonTip, etherOxygen))
+                return true;
 
-        return origin;
+        return false;
     }
 
-    // Simple open chain:
+    // Classification:
 
-    private static Optional<Simple> toSimple(List<Atom> originCarbons) {
-        Optional<Atom> simpleOriginCarbon = getSimpleOriginCarbon(originCarbons);
+    // Walks the chain from a carbon tip once, checking at every carbon if it could still be a Simple or an Ether. While
+    // it could be both, they bond exactly the same substituents, so the steps to build them are shared.
 
-        if (simpleOriginCarbon.isEmpty())
-            return Optional.empty();
+    private int classifyFrom(int carbonTip, boolean couldBeEther, List<Substituent> steps) {
+        boolean couldBeSimple = true;
+        boolean etherFound = false;
 
-        Simple simple = new Simple();
-        buildSimpleFrom(simple, simpleOriginCarbon.get());
-        simple.standardize();
+        int carbon = carbonTip;
+        int parent = -1;
 
-        return Optional.of(simple);
-    }
+        while (true) { // Along the chain, one carbon at a time
+            int simpleNext = -1, simpleNextCount = 0; // Not substituents of a Simple
+            int etherNext = -1, etherNextCount = 0; // Not substituents of an Ether, or -O-C
+
+            for (int bond = graph.getFirstBond(carbon); bond < graph.getEndBond(carbon); bond++) {
+                int bondedAtom = graph.getBondedAtom(bond);
+
+                if (bondedAtom == parent)
+                    continue;
+
+                if (!hasFeature(bond, carbon, simpleSubstituent) && !hasFeature(bond, carbon, radicalCarbon)) {
+                    simpleNext = bondedAtom;
+                    simpleNextCount++;
+                }
+
+                if (hasFeature(bond, carbon, etherOxygen)
+                        || (!hasFeature(bond, carbon, etherSubstituent) && !hasFeature(bond, carbon, radicalCarbon))) {
+                    if (etherNextCount == 0)
+                        etherNext = bond;
+
+                    etherNextCount++;
+                }
+            }
+
+            couldBeSimple &= simpleNextCount == 0 || (simpleNextCount == 1 && graph.is(simpleNext, Element.C));
+            couldBeEther &= etherNextCount == 0 || (etherNextCount == 1 && (graph.is(graph.getBondedAtom(etherNext),
+                    Element.C) || (!etherFound && hasFeature(etherNext, carbon, etherOxygen))));
+
+            if (couldBeSimple) {
+                addSimpleStepsFor(carbon, parent, steps);
 
-    private static Optional<Atom> getSimpleOriginCarbon(List<Atom> originCarbons) {
-        return originCarbons.stream().filter(Molecule::isSimpleCarbon).findAny();
+                if (simpleNextCount == 0)
+                    return simpleClass;
+
+                parent = carbon;
+                carbon = simpleNext;
+            }
+            else if (couldBeEther) {
+                addEtherStepsFor(carbon, parent, steps);
+
+                if (etherNextCount == 0)
+                    return etherClass;
+
+                int etherNextAtom = graph.getBondedAtom(etherNext);
+
+                if (hasFeature(etherNext, carbon, etherOxygen)) {
+                    parent = etherNextAtom;
+                    carbon = getFirstBondedCarbon(etherNextAtom, carbon);
+                    etherFound = true;
+                }
+                else {
+                    parent = carbon;
+                    carbon = etherNextAtom;
+                }
+            }
+            else return noClass;
+        }
     }
 
-    private static boolean isSimpleCarbon(Atom carbon) {
-        boolean simpleCarbon;
+    private void addSimpleStepsFor(int carbon, int parent, List<Substituent> steps) {
+        int firstStep = steps.size();
+        boolean bondCarbon = false;
 
-        List<Atom> nontrivialBondedAtoms = carbon.getBondedAtoms().stream().filter(bondedAtom ->
-                isNotSubstituent(bondedAtom, Simple.bondableAtoms)).collect(Collectors.toList());
+        for (int bond = graph.getFirstBond(carbon); bond < graph.getEndBond(carbon); bond++) {
+            int bondedAtom = graph.getBondedAtom(bond);
 
-        if (nontrivialBondedAtoms.size() == 1) {
-            Atom nonSubstituent = nontrivialBondedAtoms.stream().findFirst().get();
+            if (bondedAtom == parent)
+                continue;
 
-            if (nonSubstituent.getElement() == Element.C)
-                simpleCarbon = isSimpleCarbon(nonSubstituent); // Recursive
-            else simpleCarbon = false;
+            if (hasFeature(bond, carbon, simpleSubstituent))
+                steps.add(Substituent.of(asGroup(bondedAtom, carbon)));
+            else if (hasFeature(bond, carbon, radicalCarbon))
+                steps.add(getRadical(bond, carbon));
+            else bondCarbon = true;
         }
-        else simpleCarbon = nontrivialBondedAtoms.size() == 0;
 
-        return simpleCarbon;
+        sortStepsFrom(firstStep, steps);
+
+        if (bondCarbon)
+            steps.add(null); // Stands for a carbon
     }
 
-    private static void buildSimpleFrom(Simple simple, Atom simpleCarbon) {
-        Optional<Atom> nextCarbon = Optional.empty();
+    private void addEtherStepsFor(int carbon, int parent, List<Substituent> steps) {
+        int firstStep = steps.size();
+        Substituent nextStep = null;
+        boolean hasNext = false;
+
+        for (int bond = graph.getFirstBond(carbon); bond < graph.getEndBond(carbon); bond++) {
+            int bondedAtom = graph.getBondedAtom(bond);
 
-        for (Atom bondedAtom : simpleCarbon.getBondedAtoms()) {
-            if (isBondableAtom(bondedAtom, Simple.bondableAtoms))
-                simple.bond(asGroup(bondedAtom));
-            else if (isRadicalCarbon(bondedAtom))
-                simple.bond(buildRadicalFrom(bondedAtom));
-            else nextCarbon = Optional.of(bondedAtom);
+            if (bondedAtom == parent)
+                continue;
+
+            if (hasFeature(bond, carbon, etherOxygen)) {
+                nextStep = Substituent.of(Group.ether);
+                hasNext = true;
+            }
+            else if (hasFeature(bond, carbon, etherSubstituent))
+                steps.add(Substituent.of(asGroup(bondedAtom, carbon)));
+            else if (hasFeature(bond, carbon, radicalCarbon))
+                steps.add(getRadical(bond, carbon));
+            else { // It's a carbon
+                nextStep = null;
+                hasNext = true;
+            }
         }
 
-        if (nextCarbon.isPresent()) {
-            simple.bondCarbon();
-            buildSimpleFrom(simple, nextCarbon.get()); // Recursive
+        sortStepsFrom(firstStep, steps);
+
+        if (hasNext)
+            steps.add(nextStep); // The ether or a carbon
+    }
+
+    private static void sortStepsFrom(int firstStep, List<Substituent> steps) {
+        // Radicals are bonded in the same order whatever the order of the atoms, which can break orientation ties:
+        steps.subList(firstStep, steps.size()).sort(null);
+    }
+
+    private static OpenChain build(OpenChain openChain, List<Substituent> steps) {
+        for (Substituent step : steps) {
+            if (step != null)
+                openChain = openChain.bond(step);
+            else openChain.bondCarbon();
         }
+
+        openChain.standardize();
+
+        return openChain;
     }
 
-    // Ether open chain:
+    // Features:
+
+    private boolean hasFeature(int bond, int parent, byte feature) {
+        if (bondedAtomFeatures[bond] == 0)
+            bondedAtomFeatures[bond] = computeFeatures(bond, parent);
+
+        return (bondedAtomFeatures[bond] & feature) != 0;
+    }
 
-    private static Optional<Ether> toEther(List<Atom> originCarbons) {
-        Optional<Atom> etherOriginCarbon = getEtherOriginCarbon(originCarbons);
+    private byte computeFeatures(int bond, int parent) {
+        int atom = graph.getBondedAtom(bond);
+        long signature = getSignature(atom, parent);
+        byte features = computedFeatures;
 
-        if (etherOriginCarbon.isEmpty())
-            return Optional.empty();
+        if (contains(simpleBondableSignatures, signature))
+            features |= simpleSubstituent;
 
-        Ether ether = new Ether();
-        buildEtherFrom(ether, etherOriginCarbon.get());
-        ether.standardize();
+        if (contains(etherBondableSignatures, signature))
+            features |= etherSubstituent;
 
-        return Optional.of(ether);
+        if (signature == Atom.OC.getSignature())
+            features |= etherOxygen;
+
+        if (getRadicalSize(bond, parent) != notRadical)
+            features |= radicalCarbon;
+
+        return features;
     }
 
-    private static Optional<Atom> getEtherOriginCarbon(List<Atom> originCarbons) {
-        if (originCarbons.size() > 2) // It's C(...)C-O-C(...)C
-            originCarbons.removeIf(originCarbon -> originCarbon.getBondedAtoms().contains(Atom.OC));
+    private static boolean contains(long[] signatures, long signature) {
+        for (long knownSignature : signatures)
+            if (signature == knownSignature)
+                return true;
 
-        return originCarbons.stream().filter(originCarbon -> isEtherCarbon(originCarbon, false)).findAny();
+        return false;
     }
 
-    private static boolean isEtherCarbon(Atom carbon, boolean etherFound) {
-        boolean etherCarbon;
+    // Rooted queries:
 
-        List<Atom> nontrivialBondedAtoms = carbon.getBondedAtoms().stream().filter(bondedAtom ->
-                isNotSubstituent(bondedAtom, Ether.bondableAtoms)).collect(Collectors.toList());
+    private int getBondCount(int atom, int parent) {
+        return graph.getBondCount(atom) - (parent != -1 ? 1 : 0);
+    }
 
-        nontrivialBondedAtoms.addAll(carbon.getBondedAtoms().stream().filter(bondedAtom ->
-                bondedAtom.equals(Atom.OC)).collect(Collectors.toList()));
+    private long getSignature(int atom, int parent) { // Only one node deep, like Atom.getSignature()
+        long signature = graph.getSignature(atom);
 
-        if (nontrivialBondedAtoms.size() == 1) {
-            Atom nontrivialBondedAtom = nontrivialBondedAtoms.stream().findFirst().get();
+        if (parent != -1)
+            signature -= Atom.bondedSignatureOf(graph.getElement(parent)); // Still large if it was at the maximum
 
-            if (nontrivialBondedAtom.getElement() == Element.C)
-                etherCarbon = isEtherCarbon(nontrivialBondedAtom, etherFound); // Recursive
-            else if (!etherFound && nontrivialBondedAtom.equals(Atom.OC))
-                etherCarbon = isEtherCarbon(nontrivialBondedAtom.getBondedAtoms().get(0), true); // Recursive
-            else etherCarbon = false;
-        }
-        else etherCarbon = nontrivialBondedAtoms.size() == 0;
+        return signature;
+    }
 
-        return etherCarbon;
+    private int getAmountOf(int atom, int parent, Element element) {
+        return Atom.getAmountIn(getSignature(atom, parent), element);
     }
 
-    private static void buildEtherFrom(Ether ether, Atom etherCarbon) {
-        Optional<Atom> nextAtom = Optional.empty();
-        boolean bondEther = false;
-
-        for (Atom bondedAtom : etherCarbon.getBondedAtoms()) {
-            if (bondedAtom.equals(Atom.OC)) {
-                nextAtom = Optional.of(bondedAtom.getBondedAtoms().get(0));
-                bondEther = true;
-            } else if (isBondableAtom(bondedAtom, Ether.bondableAtoms))
-                ether.bond(asGroup(bondedAtom));
-            else if (isRadicalCarbon(bondedAtom))
-                ether.bond(buildRadicalFrom(bondedAtom));
-            else nextAtom = Optional.of(bondedAtom); // It's a carbon
-        }
+    private int getFirstBondedCarbon(int atom, int parent) {
+        int bond = getFirstCarbonBond(atom, parent);
+        return bond != -1 ? graph.getBondedAtom(bond) : -1;
+    }
 
-        if (nextAtom.isPresent()) {
-            if (bondEther)
-                ether.bond(Group.ether);
-            else ether.bondCarbon();
+    private int getFirstCarbonBond(int atom, int parent) {
+        for (int bond = graph.getFirstBond(atom); bond < graph.getEndBond(atom); bond++) {
+            int bondedAtom = graph.getBondedAtom(bond);
 
-            buildEtherFrom(ether, nextAtom.get()); // Recursive
+            if (bondedAtom != parent && graph.is(bondedAtom, Element.C))
+                return bond;
         }
+
+        return -1;
     }
 
-    // Open chain:
+    // Radicals:
 
-    private static boolean isNotSubstituent(Atom atom, List<Atom> bondableAtoms) {
-        return !isBondableAtom(atom, bondableAtoms) && !isRadicalCarbon(atom);
-    }
+    // A radical carbon is either -CH3, -CH(CH3)2 or a -CH2- link bonded to another radical carbon. The size of each one
+    // is computed once, so runs of -CH2- links are walked only once however many times they are reached.
 
-    private static boolean isBondableAtom(Atom atom, List<Atom> bondableAtoms) {
-        return bondableAtoms.contains(atom);
-    }
+    private int getRadicalSize(int firstBond, int firstParent) {
+        int linkCount = 0;
+        int size = bondedRadicalSizes[firstBond];
 
-    private static boolean isRadicalCarbon(Atom atom) {
-        if (atom.getElement() != Element.C)
-            return false;
+        int lastBond = firstBond;
+        int lastParent = firstParent;
 
-        List<Atom> bondedAtoms = atom.getBondedAtoms();
+        while (size == unknownSize) { // Down its -CH2- links, one carbon at a time
+            int atom = graph.getBondedAtom(lastBond);
 
-        if (bondedAtoms.size() != 3)
-            return false;
+            if (!isMethyleneLink(atom, lastParent)) {
+                size = getLastRadicalSize(atom, lastParent);
+                break;
+            }
 
-        boolean radical;
+            lastBond = getFirstCarbonBond(atom, lastParent);
+            lastParent = atom;
+            linkCount++;
 
-        int hydrogenCount = atom.getAmountOf(Element.H);
+            size = bondedRadicalSizes[lastBond];
+        }
 
-        if (hydrogenCount == 1) { // -CH(CH3)2
-            Stream<Atom> bondedCH3s = bondedAtoms.stream().filter(bonded -> bonded.getAmountOf(Element.H) == 3);
-            bondedCH3s = bondedCH3s.filter(bonded -> bonded.getBondedAtoms().size() == 3);
+        int bond = firstBond;
+        int parent = firstParent;
 
-            radical = bondedCH3s.count() == 2;
-        } else if (hydrogenCount == 2) { // -CH2-C
-            Stream<Atom> bondedCarbons = bondedAtoms.stream().filter(bonded -> bonded.getElement() == Element.C);
+        for (int i = linkCount; i > 0; i--) { // Back down, each -CH2- link adding a carbon
+            bondedRadicalSizes[bond] = size != notRadical ? size + i * methyleneSize : notRadical;
 
-            if (atom.getAmountOf(Element.C) == 1)
-                radical = bondedCarbons.allMatch(Molecule::isRadicalCarbon); // Recursive
-            else radical = false;
+            int atom = graph.getBondedAtom(bond);
+            bond = getFirstCarbonBond(atom, parent);
+            parent = atom;
         }
-        else radical = hydrogenCount == 3; // -CH3
 
-        return radical;
+        bondedRadicalSizes[lastBond] = size;
+
+        return bondedRadicalSizes[firstBond];
     }
 
-    private static Substituent buildRadicalFrom(Atom radicalCarbon) {
-        int hydrogenCount = radicalCarbon.getAmountOf(Element.H);
+    private boolean isMethyleneLink(int atom, int parent) { // -CH2-C
+        return graph.is(atom, Element.C) && getBondCount(atom, parent) == 3
+                && getAmountOf(atom, parent, Element.H) == 2 && getAmountOf(atom, parent, Element.C) == 1;
+    }
+
+    private int getLastRadicalSize(int atom, int parent) {
+        if (!graph.is(atom, Element.C))
+            return notRadical;
+
+        if (getBondCount(atom, parent) != 3)
+            return notRadical;
+
+        int hydrogenCount = getAmountOf(atom, parent, Element.H);
 
         if (hydrogenCount == 3)
-            return Substituent.radical(1);
+            return methylSize;
+
+        if (hydrogenCount != 1)
+            return notRadical;
 
-        if (hydrogenCount == 1)
-            return Substituent.radical(3, true);
+        int bondedCH3Count = 0; // -CH(CH3)2
 
-        List<Atom> bondedCarbons = radicalCarbon.getBondedAtoms();
-        bondedCarbons.removeIf(bondedAtom -> bondedAtom.getElement() != Element.C);
+        for (int bond = graph.getFirstBond(atom); bond < graph.getEndBond(atom); bond++) {
+            int bonded = graph.getBondedAtom(bond);
 
-        Atom nextCarbon = bondedCarbons.get(0); // There must be one
+            if (bonded != parent && getAmountOf(bonded, atom, Element.H) == 3)
+                if (getBondCount(bonded, atom) == 3)
+                    bondedCH3Count++;
+        }
+
+        return bondedCH3Count == 2 ? isopropylSize : notRadical;
+    }
 
-        Substituent radicalEnd = buildRadicalFrom(nextCarbon); // Recursive
+    private Substituent getRadical(int bond, int parent) { // It must be one
+        int size = getRadicalSize(bond, parent);
 
-        return Substituent.radical(1 + radicalEnd.getCarbonCount(), radicalEnd.isIso()); // Appended
+        return Substituent.radicalFor(size); // Shared
     }
 
-    private static Group asGroup(Atom atom) {
-        Group group = atomToGroup.get(atom);
+    private Group asGroup(int atom, int parent) {
+        long signature = getSignature(atom, parent);
 
-        if (group == null)
-            throw new IllegalArgumentException(String.format(unknownFunctionalGroupError, atom.getElement()));
+        for (int i = 0; i < groupSignatures.length; i++)
+            if (signature == groupSignatures[i])
+                return signatureGroups[i];
 
-        return group;
+        throw new IllegalArgumentException(String.format(unknownFunctionalGroupError, graph.getElement(atom)));
     }
 
 }
@@ -0,0 +1,276 @@
+package com.quimify.organic.molecules;
+
+import com.quimify.organic.components.Element;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// This class reads acyclic SMILES into molecular graphs with explicit hydrogens, as OPSIN writes them in CML.
+
+final class SmilesReader {
+
+    private final String smiles;
+    private int position;
+
+    // Atoms:
+
+    private int atomCount;
+    private byte[] elements = new byte[16]; // Element ordinals
+    private int[] explicitHydrogens = new int[16]; // -1 when implicit
+    private int[] bondOrderSums = new int[16];
+
+    // Bonds:
+
+    private int bondCount;
+    private int[] bondedPairs = new int[32];
+
+    // Constants:
+
+    private static final Element[] knownElements = Element.values();
+
+    // Error messages:
+
+    private static final String unexpectedCharacterError = "Unexpected character in SMILES %s at %d.";
+    private static final String unclosedBracketError = "Unclosed bracket atom in SMILES %s.";
+    private static final String missingElementError = "Bracket atom without element in SMILES %s at %d.";
+    private static final String unbalancedBranchError = "Unbalanced branches in SMILES %s.";
+    private static final String danglingBondError = "Bond without atoms at both ends in SMILES %s at %d.";
+
+    // Constructor:
+
+    private SmilesReader(String smiles) {
+        this.smiles = smiles;
+    }
+
+    static Optional<MolecularGraph> read(String smiles) { // Throws IllegalArgumentException if it's malformed
+        SmilesReader reader = new SmilesReader(smiles);
+
+        if (!reader.readAtomsAndBonds())
+            return Optional.empty(); // There were cycles or strictly inorganic atoms
+
+        return Optional.of(reader.buildGraph());
+    }
+
+    // Parsing:
+
+    private boolean readAtomsAndBonds() {
+        int[] branchStack = new int[8];
+        int branchDepth = 0;
+
+        int previousAtom = -1;
+        int bondOrder = 1;
+        boolean bondPending = false; // Like "C=", until the atom after it
+
+        while (position < smiles.length()) {
+            char character = smiles.charAt(position);
+
+            if (bondPending && (character == '(' || character == ')' || character == '.'
+                    || bondOrderFor(character) > 0))
+                throw new IllegalArgumentException(String.format(danglingBondError, smiles, position));
+
+            if (character == '(') {
+                if (branchDepth == branchStack.length)
+                    branchStack = Arrays.copyOf(branchStack, 2 * branchDepth);
+
+                branchStack[branchDepth++] = previousAtom;
+                position++;
+                continue;
+            }
+
+            if (character == ')') {
+                if (branchDepth == 0)
+                    throw new IllegalArgumentException(String.format(unbalancedBranchError, smiles));
+
+                previousAtom = branchStack[--branchDepth];
+                position++;
+                continue;
+            }
+
+            if (character == '.') { // Disconnected fragments
+                previousAtom = -1;
+                position++;
+                continue;
+            }
+
+            int order = bondOrderFor(character);
+
+            if (order > 0) {
+                if (previousAtom == -1) // Like "=C"
+                    throw new IllegalArgumentException(String.format(danglingBondError, smiles, position));
+
+                bondOrder = order;
+                bondPending = true;
+                position++;
+                continue;
+            }
+
+            if (Character.isDigit(character) || character == '%')
+                return false; // Ring closures
+
+            int atom = character == '[' ? readBracketAtom() : readOrganicSubsetAtom();
+
+            if (atom == -1)
+                return false; // Not an organic element
+
+            if (previousAtom != -1)
+                addBond(previousAtom, atom, bondOrder);
+
+            previousAtom = atom;
+            bondOrder = 1;
+            bondPending = false;
+        }
+
+        if (bondPending)
+            throw new IllegalArgumentException(String.format(danglingBondError, smiles, position));
+
+        if (branchDepth != 0)
+            throw new IllegalArgumentException(String.format(unbalancedBranchError, smiles));
+
+        return true;
+    }
+
+    private int readOrganicSubsetAtom() {
+        char first = smiles.charAt(position);
+
+        if (!Character.isUpperCase(first)) // Like aromatic "c", which only comes with cycles
+            throw new IllegalArgumentException(String.format(unexpectedCharacterError, smiles, position));
+
+        int length = 1;
+
+        if ((first == 'C' && isAt(position + 1, 'l')) || (first == 'B' && isAt(position + 1, 'r')))
+            length = 2; // "Cl" or "Br"
+
+        Element element = elementFor(position, length);
+        position += length;
+
+        return element != null ? addAtom(element, -1) : -1;
+    }
+
+    private int readBracketAtom() {
+        int closing = smiles.indexOf(']', position);
+
+        if (closing == -1)
+            throw new IllegalArgumentException(String.format(unclosedBracketError, smiles));
+
+        position++; // '['
+
+        while (position < closing && Character.isDigit(smiles.charAt(position)))
+            position++; // Isotope
+
+        if (position == closing) // Like "[]"
+            throw new IllegalArgumentException(String.format(missingElementError, smiles, position));
+
+        int length = position + 1 < closing && Character.isLowerCase(smiles.charAt(position + 1)) ? 2 : 1;
+        Element element = elementFor(position, length);
+        position += length;
+
+        while (isAt(position, '@')) // The closing bracket is always found before the end
+            position++; // Chirality
+
+        int hydrogens = 0;
+
+        if (isAt(position, 'H')) {
+            position++;
+            hydrogens = 1;
+
+            if (position < closing && Character.isDigit(smiles.charAt(position)))
+                hydrogens = smiles.charAt(position++) - '0';
+        }
+
+        position = closing + 1; // Charge and class don't change the atoms bonded
+
+        return element != null ? addAtom(element, hydrogens) : -1;
+    }
+
+    private static int bondOrderFor(char character) {
+        switch (character) {
+            case '-':
+            case '/':
+            case '\\':
+            case ':':
+                return 1;
+            case '=':
+                return 2;
+            case '#':
+                return 3;
+            case '$':
+                return 4;
+            default:
+                return 0; // Not a bond
+        }
+    }
+
+    private Element elementFor(int start, int length) {
+        for (Element element : knownElements)
+            if (element.name().length() == length && smiles.startsWith(element.name(), start))
+                return element;
+
+        return null;
+    }
+
+    private boolean isAt(int index, char character) {
+        return index < smiles.length() && smiles.charAt(index) == character;
+    }
+
+    // Building:
+
+    private int addAtom(Element element, int hydrogens) {
+        if (atomCount == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * atomCount);
+            explicitHydrogens = Arrays.copyOf(explicitHydrogens, 2 * atomCount);
+            bondOrderSums = Arrays.copyOf(bondOrderSums, 2 * atomCount);
+        }
+
+        elements[atomCount] = (byte) element.ordinal();
+        explicitHydrogens[atomCount] = hydrogens;
+
+        return atomCount++;
+    }
+
+    private void addBond(int first, int second, int order) {
+        if (2 * bondCount == bondedPairs.length)
+            bondedPairs = Arrays.copyOf(bondedPairs, 4 * bondCount);
+
+        bondedPairs[2 * bondCount] = first;
+        bondedPairs[2 * bondCount + 1] = second;
+        bondCount++;
+
+        bondOrderSums[first] += order;
+        bondOrderSums[second] += order;
+    }
+
+    private MolecularGraph buildGraph() {
+        int heavyAtomCount = atomCount;
+
+        for (int i = 0; i < heavyAtomCount; i++) { // Hydrogens go last, like in CML from OPSIN
+            int hydrogens = explicitHydrogens[i] != -1 ? explicitHydrogens[i] : implicitHydrogensOf(i);
+
+            for (int j = 0; j < hydrogens; j++)
+                addBond(i, addAtom(Element.H, 0), 1);
+        }
+
+        return new MolecularGraph(elements, atomCount, bondedPairs, bondCount);
+    }
+
+    private int implicitHydrogensOf(int atom) {
+        int valence;
+
+        switch (knownElements[elements[atom]]) {
+            case C:
+                valence = 4;
+                break;
+            case N:
+                valence = bondOrderSums[atom] <= 3 ? 3 : 5;
+                break;
+            case O:
+                valence = 2;
+                break;
+            default: // Halogens
+                valence = 1;
+                break;
+        }
+
+        return Math.max(0, valence - bondOrderSums[atom]);
+    }
+
+}
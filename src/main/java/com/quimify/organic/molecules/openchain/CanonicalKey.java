@@ -0,0 +1,172 @@
+package com.quimify.organic.molecules.openchain;
+
+import com.quimify.organic.components.Chain;
+import com.quimify.organic.components.Group;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+// This class represents the canonical key of an open chain: a compact byte encoding of its structure and a 128-bit
+// fingerprint of it. Open chains with equal keys get the same name, no matter which orientation they were built in.
+// Each carbon's radicals are kept in the order they were bonded, as standardizing breaks ties with it, so one name can
+// have a few keys.
+
+public final class CanonicalKey {
+
+    private final byte[] bytes;
+    private final long mostSignificantBits; // Of the 128-bit fingerprint
+    private final long leastSignificantBits;
+
+    // Constants:
+
+    private static final int simpleTag = 0;
+    private static final int etherTag = 1;
+    private static final int unstandardizedSimpleTag = 2;
+    private static final int unstandardizedEtherTag = 3;
+
+    private static final int etherMark = 0xFF; // No chain key is that long, so it can't be the next one's length
+
+    // Constructors:
+
+    CanonicalKey(byte[] bytes) {
+        this.bytes = bytes;
+
+        long most = 0x9E3779B97F4A7C15L;
+        long least = 0xCBF29CE484222325L; // FNV-1a offset
+
+        for (byte b : bytes) {
+            least = (least ^ (b & 0xFF)) * 0x100000001B3L; // FNV-1a
+            most = Long.rotateLeft(most ^ (b & 0xFF) * 0xBF58476D1CE4E5B9L, 27) * 0x94D049BB133111EBL;
+        }
+
+        this.mostSignificantBits = mix(most ^ bytes.length);
+        this.leastSignificantBits = mix(least);
+    }
+
+    static CanonicalKey ofSimple(Chain chain) {
+        // Both orientations are read, so it doesn't matter which one was chosen when standardizing:
+        byte[] chainKey = chain.getKey();
+        byte[] reversedChainKey = chain.getReversedKey();
+
+        ByteArrayOutputStream key = new ByteArrayOutputStream(chainKey.length + 1);
+        key.write(simpleTag);
+        key.writeBytes(Arrays.compare(chainKey, reversedChainKey) <= 0 ? chainKey : reversedChainKey);
+
+        return new CanonicalKey(key.toByteArray());
+    }
+
+    static CanonicalKey ofEther(Chain firstChain, Chain secondChain) {
+        // R-O-R' and R'-O-R have the same name, and both are read from the oxygen:
+        byte[] firstChainKey = firstChain.getReversedKey();
+        byte[] secondChainKey = secondChain.getKey();
+
+        if (Arrays.compare(firstChainKey, secondChainKey) > 0) {
+            byte[] swap = firstChainKey;
+            firstChainKey = secondChainKey;
+            secondChainKey = swap;
+        }
+
+        ByteArrayOutputStream key = new ByteArrayOutputStream(firstChainKey.length + secondChainKey.length + 3);
+        key.write(etherTag);
+        key.write(firstChainKey.length >>> 8); // So both chains can be told apart
+        key.write(firstChainKey.length);
+        key.writeBytes(firstChainKey);
+        key.writeBytes(secondChainKey);
+
+        return new CanonicalKey(key.toByteArray());
+    }
+
+    static CanonicalKey ofUnstandardizedSimple(Chain chain) {
+        return ofUnstandardized(unstandardizedSimpleTag, chain);
+    }
+
+    static CanonicalKey ofUnstandardizedEther(Chain firstChain, Chain secondChain) {
+        return ofUnstandardized(unstandardizedEtherTag, firstChain, secondChain);
+    }
+
+    // Queries:
+
+    public UUID getFingerprint() { // All 128 bits
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    public int getLength() {
+        return bytes.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (leastSignificantBits ^ leastSignificantBits >>> 32);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+
+        if (other == null || getClass() != other.getClass())
+            return false;
+
+        CanonicalKey otherKey = (CanonicalKey) other;
+
+        if (mostSignificantBits != otherKey.mostSignificantBits || leastSignificantBits != otherKey.leastSignificantBits)
+            return false; // Almost always decided here
+
+        return Arrays.equals(bytes, otherKey.bytes);
+    }
+
+    // Private:
+
+    private static CanonicalKey ofUnstandardized(int tag, Chain... chains) {
+        // Chains are read as they were built, so equal keys get the same results when standardized:
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+        key.write(tag);
+
+        for (Chain chain : chains) {
+            byte[] chainKey = chain.getKey();
+
+            key.write(chainKey.length >>> 8); // So chains can be told apart
+            key.write(chainKey.length);
+            key.writeBytes(chainKey);
+
+            for (int index : chain.getIndexArrayOf(Group.ether)) { // Chain keys leave it out
+                key.write(etherMark);
+                key.write(index >>> 8);
+                key.write(index);
+            }
+        }
+
+        return new CanonicalKey(key.toByteArray());
+    }
+
+    private static long mix(long bits) { // Like MurmurHash3's fmix64
+        bits ^= bits >>> 33;
+        bits *= 0xFF51AFD7ED558CCDL;
+        bits ^= bits >>> 33;
+        bits *= 0xC4CEB9FE1A85EC53L;
+        bits ^= bits >>> 33;
+
+        return bits;
+    }
+
+    // Text:
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", mostSignificantBits, leastSignificantBits);
+    }
+
+}
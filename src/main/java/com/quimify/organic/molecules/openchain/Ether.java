@@ -1,8 +1,10 @@
 package com.quimify.organic.molecules.openchain;
 
+import com.quimify.organic.ChainNamer;
 import com.quimify.organic.Nomenclature;
 import com.quimify.organic.components.Atom;
 import com.quimify.organic.components.Chain;
+import com.quimify.organic.components.ChainView;
 import com.quimify.organic.components.Group;
 import com.quimify.organic.components.Substituent;
 
@@ -13,8 +15,8 @@ import java.util.*;
 
 public final class Ether extends Nomenclature implements OpenChain {
 
-	private final Chain firstChain; // R
-	private final Chain secondChain; // R'
+	private Chain firstChain; // R
+	private Chain secondChain; // R'
 	private Chain currentChain; // Pointer
 
 	// Constants:
@@ -63,10 +65,14 @@ public final class Ether extends Nomenclature implements OpenChain {
 	}
 
 	public List<Group> getBondableGroups() {
+		return getBondableGroupsFor(currentChain.getFreeBondCount(), !firstChain.isBondedTo(Group.ether));
+	}
+
+	static List<Group> getBondableGroupsFor(int freeBondCount, boolean canBondEther) { // Also used by OpenChainBuilder
 		List<Group> bondableGroups = new ArrayList<>();
 
-		if(currentChain.getFreeBondCount() >= 1) {
-			if (!firstChain.isBondedTo(Group.ether))
+		if(freeBondCount >= 1) {
+			if (canBondEther)
 				bondableGroups.add(Group.ether);
 
 			bondableGroups.add(Group.nitro);
@@ -82,7 +88,7 @@ public final class Ether extends Nomenclature implements OpenChain {
 	}
 
 	public OpenChain bond(Group group) {
-		return bond(new Substituent(group));
+		return bond(Substituent.of(group));
 	}
 
 	public OpenChain bond(Substituent substituent) {
@@ -111,24 +117,12 @@ public final class Ether extends Nomenclature implements OpenChain {
 	public void standardize() {
 		firstChain.correctChainToTheLeft(); // CF(CH3)-O- → CH3-CF-O-
 		secondChain.correctChainToTheRight(); // -O-CHF(CH3) → -O-CHF-CH3
-		// TODO standardize chain order! (based on chains names?)
+		correctChainOrder(); // CH3-O-CH2-CH3 → CH3-CH2-O-CH3
 	}
 
 	public String getName() {
-		String name;
-
-		String firstChainName = getNameFor(firstChain.getInverseOrientation()); // First carbon is not the ending
-		String secondChainName = getNameFor(secondChain); // This is already well oriented
-
-		if (!firstChainName.equals(secondChainName)) {
-			// Chains are alphabetically ordered:
-			if (firstChainName.compareTo(secondChainName) < 0)
-				name = firstChainName + " " + secondChainName;
-			else name = secondChainName + " " + firstChainName;
-		}
-		else name = (startsWithDigit(firstChainName) ? "di " : "di") + firstChainName;
-
-		return name + " éter";
+		ChainView firstChain = this.firstChain.getReversedView(); // First carbon is not the ending
+		return ChainNamer.get().getEtherNameFor(firstChain, secondChain, Ether::isRedundantInNameIn);
 	}
 
 	public String getStructure() {
@@ -140,74 +134,57 @@ public final class Ether extends Nomenclature implements OpenChain {
 		return firstChain + secondChain.toString();
 	}
 
-	// Naming:
-
-	private boolean isRedundantInNameIn(Group group, Chain chain) {
-		boolean redundant;
-
-		// Derivados del propil:
-		if (chain.getSize() == 3)
-			redundant = group == Group.alkene && chain.getAmountOf(Group.alkene) == 2; // Es propadienil
-			// Derivados del etil:
-		else if (chain.getSize() == 2)
-			redundant = isBond(group); // Solo hay una posición posible para el enlace
-			// Derivados del metil:
-		else redundant = chain.getSize() == 1;
-
-		return redundant;
+	public String getSmiles() {
+		return firstChain.getSmiles() + secondChain.getSmiles(); // The first one ends in the oxygen
 	}
 
-	private String getNameFor(Chain chain) { // TODO fix repeated code
-		List<Group> groups = chain.getGroups();
-		groups.removeIf(group -> group == Group.hydrogen || group == Group.ether);
-
-		int groupIndex = 0;
-
-		// Se procesan los prefijos:
-		List<Locator> prefixes = new ArrayList<>();
-
-		while (groupIndex < groups.size()) {
-			if (!isBond(groups.get(groupIndex)) && groups.get(groupIndex) != Group.radical) {
-				Group group = groups.get(groupIndex);
-				boolean redundant = isRedundantInNameIn(group, chain);
+	public CanonicalKey getCanonicalKey() {
+		return CanonicalKey.ofEther(firstChain, secondChain);
+	}
 
-				prefixes.add(getPrefixForIn(group, chain, redundant));
-			}
+	public CanonicalKey getUnstandardizedKey() {
+		return CanonicalKey.ofUnstandardizedEther(firstChain, secondChain);
+	}
 
-			groupIndex++;
-		}
+	// Private:
 
-		Set<Substituent> uniqueRadicals = new HashSet<>(chain.getSubstituents());
-		uniqueRadicals.removeIf(substituent -> substituent.getGroup() != Group.radical);
+	private void correctChainOrder() { // As in the name, so it doesn't matter which way it was built
+		if (currentChain != secondChain || !secondChain.isDone())
+			return;
 
-		for (Substituent radical : uniqueRadicals)
-			prefixes.add(new Locator(chain.getIndexesOf(radical), radicalNameParticleFor(radical)));
+		ChainView firstChain = this.firstChain.getReversedView(); // Both from the oxygen, like in getName()
 
-		StringBuilder prefix = new StringBuilder(chain.isBondedTo(Group.acid) ? "ácido " : "");
-		if (prefixes.size() > 0) {
-			Locator.orderAplhabetically(prefixes);
+		if (ChainNamer.get().compareEtherChainNames(firstChain, secondChain, Ether::isRedundantInNameIn) <= 0)
+			return;
 
-			for (int i = 0; i < prefixes.size() - 1; i++) {
-				prefix.append(prefixes.get(i).toString());
+		Chain newFirstChain = secondChain.getInverseOrientation(); // -O-CH2-R' → R'-CH2-
+		newFirstChain.getLastCarbon().freeBond();
+		newFirstChain.getLastCarbon().bond(Group.ether); // R'-CH2- → R'-CH2-O-
 
-				if (doesNotStartWithLetter(prefixes.get(i + 1).toString()))
-					prefix.append("-");
-			}
+		Chain newSecondChain = this.firstChain.getInverseOrientation(); // R-CH2-O- → -O-CH2-R
+		newSecondChain.getFirstCarbon().unbond(Group.ether);
+		newSecondChain.getFirstCarbon().useBond(); // Still bonded to the oxygen
 
-			prefix.append(prefixes.get(prefixes.size() - 1));
-		}
+		this.firstChain = newFirstChain;
+		this.secondChain = newSecondChain;
+		currentChain = newSecondChain;
+	}
 
-		// Se procesan los enlaces:
-		String bonds = getBondNameForIn(Group.alkene, chain, isRedundantInNameIn(Group.alkene, chain)) +
-				getBondNameForIn(Group.alkyne, chain, isRedundantInNameIn(Group.alkyne, chain));
+	// Naming:
 
-		// Se procesa el cuantificador:
-		String quantifier = quantifierFor(chain.getSize());
+	private static boolean isRedundantInNameIn(Group group, ChainView chain) {
+		boolean redundant;
 
-		if (!bonds.isEmpty() && doesNotStartWithVowel(bonds))
-			quantifier += "a";
+		// Derivados del propil:
+		if (chain.getSize() == 3)
+			redundant = group == Group.alkene && chain.getAmountOf(Group.alkene) == 2; // Es propadienil
+			// Derivados del etil:
+		else if (chain.getSize() == 2)
+			redundant = isBond(group); // Solo hay una posición posible para el enlace
+			// Derivados del metil:
+		else redundant = chain.getSize() == 1;
 
-		return prefix + quantifier + bonds + "il";
+		return redundant;
 	}
 
 }
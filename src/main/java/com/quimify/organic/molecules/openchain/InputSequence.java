@@ -0,0 +1,182 @@
+package com.quimify.organic.molecules.openchain;
+
+import com.quimify.organic.components.Group;
+import com.quimify.organic.components.Substituent;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// This class encodes the steps followed to build an open chain, like the input sequences of StructureToName, into a
+// few bytes that can be stored or sent and replayed later:
+// - Version: one byte
+// - Steps: one varint each, 0 for a carbon, 1 + ordinal for a group or radicalBase + radical key for a radical
+// I.E.: CH3-CH2(OH) → [1, 19, 19, 19, 0, 19, 19, 8]
+
+public final class InputSequence {
+
+    // Input sequences:
+
+    public static final int carbonInput = -1; // Groups are their ordinals, and radicals are followed by iso and carbons
+
+    // Constants:
+
+    public static final int version = 1;
+
+    private static final int carbonStep = 0;
+    private static final int radicalBase = 1 + Group.values().length;
+    private static final int maxRadicalCarbonCount = (Integer.MAX_VALUE - radicalBase - 1) >>> 1; // Positive steps
+
+    private static final Group[] groups = Group.values();
+
+    // Error messages:
+
+    private static final String unknownVersionError = "Unknown input sequence version: %d.";
+    private static final String emptyError = "Empty encoded input sequence.";
+    private static final String truncatedError = "Truncated encoded input sequence.";
+    private static final String unknownStepError = "Unknown input sequence step: %d.";
+    private static final String incompleteRadicalError = "Radical without iso and carbons in input sequence.";
+    private static final String radicalCarbonCountError = "Radical carbon count out of range in input sequence: %d.";
+    private static final String varintOverflowError = "Encoded input sequence step out of range.";
+
+    // Constructor:
+
+    private InputSequence() {}
+
+    // Encoding:
+
+    public static byte[] encode(List<Integer> inputSequence) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(inputSequence.size() + 1);
+        bytes.write(version);
+
+        for (int i = 0; i < inputSequence.size(); i++) {
+            int input = inputSequence.get(i);
+
+            if (input == carbonInput)
+                writeVarint(bytes, carbonStep);
+            else if (input == Group.radical.ordinal()) {
+                if (i + 2 >= inputSequence.size())
+                    throw new IllegalArgumentException(incompleteRadicalError);
+
+                boolean iso = inputSequence.get(++i) == 1;
+                int carbonCount = inputSequence.get(++i);
+
+                if (carbonCount <= 0 || carbonCount > maxRadicalCarbonCount)
+                    throw new IllegalArgumentException(String.format(radicalCarbonCountError, carbonCount));
+
+                writeVarint(bytes, radicalBase + Substituent.radicalKeyOf(carbonCount, iso));
+            }
+            else if (input >= 0 && input < groups.length)
+                writeVarint(bytes, 1 + input);
+            else throw new IllegalArgumentException(String.format(unknownStepError, input));
+        }
+
+        return bytes.toByteArray();
+    }
+
+    public static List<Integer> decode(byte[] encoded) {
+        List<Integer> inputSequence = new ArrayList<>(encoded.length);
+
+        for (Steps steps = new Steps(encoded); steps.hasNext(); ) {
+            int step = steps.next();
+
+            if (step == carbonStep)
+                inputSequence.add(carbonInput);
+            else if (step >= radicalBase) {
+                checkRadicalStep(step);
+
+                inputSequence.add(Group.radical.ordinal());
+                inputSequence.add((step - radicalBase) & 1); // Iso, as in Substituent.radicalKeyOf()
+                inputSequence.add((step - radicalBase) >>> 1); // Carbons
+            }
+            else if (step > 0 && step - 1 != Group.radical.ordinal()) // So step - 1 < groups.length
+                inputSequence.add(step - 1);
+            else throw new IllegalArgumentException(String.format(unknownStepError, step));
+        }
+
+        return inputSequence;
+    }
+
+    // Replaying:
+
+    public static OpenChain replay(byte[] encoded) {
+        OpenChain openChain = new Simple();
+
+        for (Steps steps = new Steps(encoded); steps.hasNext(); ) {
+            int step = steps.next();
+
+            if (step == carbonStep)
+                openChain.bondCarbon();
+            else if (step >= radicalBase) {
+                checkRadicalStep(step);
+
+                openChain = openChain.bond(Substituent.radicalFor(step - radicalBase));
+            }
+            else if (step > 0 && step - 1 != Group.radical.ordinal()) // So step - 1 < groups.length
+                openChain = openChain.bond(Substituent.of(groups[step - 1]));
+            else throw new IllegalArgumentException(String.format(unknownStepError, step));
+        }
+
+        return openChain;
+    }
+
+    // Private:
+
+    private static void checkRadicalStep(int step) {
+        int carbonCount = (step - radicalBase) >>> 1;
+
+        if (carbonCount == 0)
+            throw new IllegalArgumentException(String.format(radicalCarbonCountError, carbonCount));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream bytes, int value) { // 7 bits per byte
+        while (value >= 0x80) {
+            bytes.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+
+        bytes.write(value);
+    }
+
+    private static final class Steps {
+
+        private final byte[] encoded;
+        private int offset;
+
+        Steps(byte[] encoded) {
+            if (encoded.length == 0)
+                throw new IllegalArgumentException(emptyError);
+
+            if (encoded[0] != version)
+                throw new IllegalArgumentException(String.format(unknownVersionError, encoded[0]));
+
+            this.encoded = encoded;
+            this.offset = 1;
+        }
+
+        boolean hasNext() {
+            return offset < encoded.length;
+        }
+
+        int next() { // Varint
+            int step = 0;
+
+            for (int shift = 0; ; shift += 7) {
+                if (offset == encoded.length || shift > 28)
+                    throw new IllegalArgumentException(truncatedError);
+
+                byte b = encoded[offset++];
+
+                if (shift == 28 && (b & 0x7F) > 0x07)
+                    throw new IllegalArgumentException(varintOverflowError); // It would reach the sign bit
+
+                step |= (b & 0x7F) << shift;
+
+                if (b >= 0)
+                    return step;
+            }
+        }
+
+    }
+
+}
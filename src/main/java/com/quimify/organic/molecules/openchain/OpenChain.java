@@ -29,4 +29,10 @@ public interface OpenChain {
 
     String getStructure();
 
+    String getSmiles();
+
+    CanonicalKey getCanonicalKey(); // Orientation-independent, after standardize()
+
+    CanonicalKey getUnstandardizedKey(); // As it was built, without standardizing nor copying it
+
 }
@@ -0,0 +1,154 @@
+package com.quimify.organic.molecules.openchain;
+
+import com.quimify.organic.components.Group;
+import com.quimify.organic.components.Substituent;
+
+import java.util.List;
+
+// This class builds open chains one step at a time, like OpenChain, but every step returns a new immutable snapshot.
+// Each one only holds its last step, a pointer to the previous snapshot and what's needed to know what can be bonded
+// next, so all of them share the steps before them. Undoing is going back to the previous snapshot.
+
+public final class OpenChainBuilder {
+
+    private final OpenChainBuilder previous; // Null for the first one
+    private final Substituent step; // Null for carbons
+    private final int stepCount;
+
+    private final boolean isEther;
+    private final boolean isInSecondChain; // Of the ether, R'
+    private final int freeBondCount; // Of the last carbon
+    private final int groupMask; // Bit i is set if group i was bonded, like in Chain
+
+    // Error messages:
+
+    private static final String cantBondError = "Can't bond %s to open chain: %s.";
+    private static final String cantBondCarbonError = "Can't bond carbon to open chain: %s.";
+    private static final String nothingToUndoError = "There are no steps to undo.";
+
+    // Constructors:
+
+    public OpenChainBuilder() {
+        this(null, null, false, false, 4, 0); // Like Simple
+    }
+
+    private OpenChainBuilder(OpenChainBuilder previous, Substituent step, boolean isEther, boolean isInSecondChain,
+                             int freeBondCount, int groupMask) {
+        this.previous = previous;
+        this.step = step;
+        this.stepCount = previous != null ? previous.stepCount + 1 : 0;
+
+        this.isEther = isEther;
+        this.isInSecondChain = isInSecondChain;
+        this.freeBondCount = freeBondCount;
+        this.groupMask = groupMask;
+    }
+
+    // Queries:
+
+    public boolean isDone() {
+        return freeBondCount == 0;
+    }
+
+    public List<Group> getBondableGroups() { // The same rules as the open chain it would build
+        if (isEther)
+            return Ether.getBondableGroupsFor(freeBondCount, false); // The ether is already bonded
+
+        return Simple.getBondableGroupsFor(freeBondCount, wouldEtherBePriority());
+    }
+
+    public boolean canBondCarbon() {
+        if (isEther && !isInSecondChain)
+            return false; // The first chain ends in the ether
+
+        return freeBondCount > 0 && freeBondCount < 4;
+    }
+
+    public boolean canUndo() {
+        return previous != null;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    // Steps:
+
+    public OpenChainBuilder bond(Group group) {
+        return bond(Substituent.of(group));
+    }
+
+    public OpenChainBuilder bond(Substituent substituent) {
+        if (!canBond(substituent.getGroup()))
+            throw new IllegalStateException(String.format(cantBondError, substituent.getGroup(), this));
+
+        int newFreeBondCount = freeBondCount - substituent.getBondCount();
+        int newGroupMask = groupMask | 1 << substituent.getGroup().ordinal();
+
+        if (substituent.getGroup() == Group.ether) // R-O-C≡, where the first chain ends if it's done
+            return new OpenChainBuilder(this, substituent, true, newFreeBondCount == 0,
+                    newFreeBondCount == 0 ? 3 : newFreeBondCount, newGroupMask);
+
+        if (isEther && !isInSecondChain && newFreeBondCount == 0) // -O-C≡
+            return new OpenChainBuilder(this, substituent, true, true, 3, newGroupMask);
+
+        return new OpenChainBuilder(this, substituent, isEther, isInSecondChain, newFreeBondCount, newGroupMask);
+    }
+
+    public OpenChainBuilder bondCarbon() {
+        if (!canBondCarbon())
+            throw new IllegalStateException(String.format(cantBondCarbonError, this));
+
+        // -C≡ → -C≡C-: the new carbon has the free bonds the last one used for it
+        return new OpenChainBuilder(this, null, isEther, isInSecondChain, 4 - freeBondCount, groupMask);
+    }
+
+    public OpenChainBuilder undo() {
+        if (previous == null)
+            throw new IllegalStateException(nothingToUndoError);
+
+        return previous;
+    }
+
+    // Building:
+
+    public OpenChain build() { // A new one each time, in linear time
+        Substituent[] steps = new Substituent[stepCount];
+
+        OpenChainBuilder snapshot = this;
+
+        for (int i = stepCount - 1; i >= 0; i--) {
+            steps[i] = snapshot.step;
+            snapshot = snapshot.previous;
+        }
+
+        OpenChain openChain = new Simple();
+
+        for (Substituent step : steps) {
+            if (step != null)
+                openChain = openChain.bond(step);
+            else openChain.bondCarbon();
+        }
+
+        return openChain;
+    }
+
+    // Private:
+
+    private boolean canBond(Group group) {
+        return getBondableGroups().contains(group);
+    }
+
+    private boolean wouldEtherBePriority() { // As in Simple
+        int higherPriorityGroups = (1 << Group.ether.ordinal()) - 1;
+        return (groupMask & higherPriorityGroups) == 0;
+    }
+
+    // Text:
+
+    @Override
+    public String toString() {
+        return build().getStructure();
+    }
+
+}
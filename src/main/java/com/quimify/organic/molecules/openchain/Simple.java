@@ -1,10 +1,10 @@
 package com.quimify.organic.molecules.openchain;
 
+import com.quimify.organic.ChainNamer;
 import com.quimify.organic.Nomenclature;
 import com.quimify.organic.components.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 // This class represents compounds composed of a single finite carbon chain with substituents.
 
@@ -57,23 +57,27 @@ public final class Simple extends Nomenclature implements OpenChain {
     }
 
     public List<Group> getBondableGroups() {
+        return getBondableGroupsFor(chain.getFreeBondCount(), wouldBePriority(Group.ether));
+    }
+
+    static List<Group> getBondableGroupsFor(int freeBondCount, boolean canBondEther) { // Also used by OpenChainBuilder
         List<Group> bondableGroups = new ArrayList<>();
 
-        if (chain.getFreeBondCount() >= 3) {
+        if (freeBondCount >= 3) {
             bondableGroups.add(Group.acid);
             bondableGroups.add(Group.amide);
             bondableGroups.add(Group.nitrile);
             bondableGroups.add(Group.aldehyde);
         }
 
-        if (chain.getFreeBondCount() >= 2)
+        if (freeBondCount >= 2)
             bondableGroups.add(Group.ketone);
 
-        if (chain.getFreeBondCount() >= 1) {
+        if (freeBondCount >= 1) {
             bondableGroups.add(Group.alcohol);
             bondableGroups.add(Group.amine);
 
-            if (wouldBePriority(Group.ether))
+            if (canBondEther)
                 bondableGroups.add(Group.ether);
 
             bondableGroups.add(Group.nitro);
@@ -89,7 +93,7 @@ public final class Simple extends Nomenclature implements OpenChain {
     }
 
     public OpenChain bond(Group group) {
-        return bond(new Substituent(group));
+        return bond(Substituent.of(group));
     }
 
     public OpenChain bond(Substituent substituent) {
@@ -123,77 +127,26 @@ public final class Simple extends Nomenclature implements OpenChain {
     }
 
     public String getName() {
-        if (chain.getSize() == 1 && chain.getIndexesOf(Group.ketone).size() == 2)
+        if (chain.getSize() == 1 && chain.getAmountOf(Group.ketone) == 2)
             return "dióxido de carbono";
 
-        List<Group> groups = chain.getGroups();
-        groups.removeIf(group -> group == Group.hydrogen);
-
-        int groupIndex = 0;
-
-        // Se procesa el sufijo:
-        String suffix = "";
-
-        if (groups.size() > 0 && !isHalogen(groups.get(0)) && !isBond(groups.get(0)))
-            if (groups.get(0) != Group.nitro && groups.get(0) != Group.radical)
-                suffix = getSuffixNameFor(groups.get(groupIndex++));
-
-        // Se procesan los prefijos:
-        List<Locator> prefixes = new ArrayList<>();
-
-        while (groupIndex < groups.size()) {
-            if (!isBond(groups.get(groupIndex)) && groups.get(groupIndex) != Group.radical) {
-                Group group = groups.get(groupIndex);
-                boolean redundant = isRedundantInName(group);
-
-                prefixes.add(getPrefixForIn(group, chain, redundant));
-            }
-
-            groupIndex++;
-        }
-
-        Set<Substituent> uniqueRadicals = new HashSet<>(chain.getSubstituents());
-        uniqueRadicals.removeIf(substituent -> substituent.getGroup() != Group.radical);
-
-        for (Substituent radical : uniqueRadicals)
-            prefixes.add(new Locator(chain.getIndexesOf(radical), radicalNameParticleFor(radical)));
-
-        StringBuilder prefix = new StringBuilder(chain.isBondedTo(Group.acid) ? "ácido " : "");
-        if (prefixes.size() > 0) {
-            Locator.orderAplhabetically(prefixes);
-
-            for (int i = 0; i < prefixes.size() - 1; i++) {
-                prefix.append(prefixes.get(i).toString());
-
-                if (doesNotStartWithLetter(prefixes.get(i + 1).toString()))
-                    prefix.append("-");
-            }
-
-            prefix.append(prefixes.get(prefixes.size() - 1));
-        }
-
-        // Se procesan los enlaces:
-        String bonds = getBondNameForIn(Group.alkene, chain, isRedundantInName(Group.alkene)) +
-                getBondNameForIn(Group.alkyne, chain, isRedundantInName(Group.alkyne));
-
-        if (bonds.equals(""))
-            bonds = "an";
-        if (suffix.equals("") || doesNotStartWithVowel(suffix))
-            bonds += "o";
-        if (!suffix.equals("") && startsWithDigit(suffix))
-            bonds += "-";
+        return ChainNamer.get().getSimpleNameFor(chain, Simple::isRedundantInNameIn);
+    }
 
-        // Se procesa el cuantificador:
-        String quantifier = quantifierFor(chain.getSize());
+    public String getStructure() {
+        return chain.getReversedView().toString();
+    }
 
-        if (doesNotStartWithVowel(bonds))
-            quantifier += "a";
+    public String getSmiles() {
+        return chain.getReversedView().getSmiles(); // Same direction as the structure
+    }
 
-        return prefix + quantifier + bonds + suffix;
+    public CanonicalKey getCanonicalKey() {
+        return CanonicalKey.ofSimple(chain);
     }
 
-    public String getStructure() {
-        return chain.getInverseOrientation().toString();
+    public CanonicalKey getUnstandardizedKey() {
+        return CanonicalKey.ofUnstandardizedSimple(chain);
     }
 
     // Private:
@@ -276,19 +229,14 @@ public final class Simple extends Nomenclature implements OpenChain {
     }
 
     private void correctChainOrientation() { // TODO separate in more methods
-        Chain inverseOrientation = chain.getInverseOrientation();
-
         List<Group> groups = chain.getGroups();
         groups.removeIf(group -> group == Group.hydrogen);
 
         boolean corrected = false;
         for (int i = 0; i < groups.size() && !corrected; i++) {
             // Se calculan las sumas de sus posiciones:
-            int normalSum = chain.getIndexesOf(groups.get(i))
-                    .stream().mapToInt(Integer::intValue).sum();
-
-            int inverseSum = inverseOrientation.getIndexesOf(groups.get(i))
-                    .stream().mapToInt(Integer::intValue).sum();
+            int normalSum = chain.getIndexSumOf(groups.get(i));
+            int inverseSum = chain.getInverseIndexSumOf(groups.get(i));
 
             // Se comparan las sumas de sus posiciones:
             corrected = correctChainOrientationBy(normalSum - inverseSum);
@@ -296,23 +244,23 @@ public final class Simple extends Nomenclature implements OpenChain {
 
         // Los radicales determinan el orden alfabéticamente como última instancia, solo cuando lo demás es indiferente.
         if (!corrected && chain.isBondedTo(Group.radical)) {
-            // Se obtienen los radicales de ambas versiones, ordenados por sus carbonos:
-
-            List<Substituent> radicals = chain.getSubstituents();
-            radicals.removeIf(substituent -> substituent.getGroup() != Group.radical);
+            // Se obtienen los radicales de ambas versiones, ordenados por sus carbonos y, en cada uno, por enlace:
 
-            List<Substituent> reversedRadicals = inverseOrientation.getSubstituents();
-            reversedRadicals.removeIf(substituent -> substituent.getGroup() != Group.radical);
+            ChainView inverseOrientation = chain.getReversedView();
 
-            List<String> radicalNames = radicals.stream()
-                    .map(Nomenclature::radicalNameParticleFor).collect(Collectors.toList());
+            List<Substituent> radicals = new ArrayList<>();
+            chain.addRadicalsTo(radicals);
 
-            List<String> reversedRadicalNames = reversedRadicals.stream()
-                    .map(Nomenclature::radicalNameParticleFor).collect(Collectors.toList());
+            List<Substituent> reversedRadicals = new ArrayList<>();
+            inverseOrientation.addRadicalsTo(reversedRadicals);
 
             // Se comparan los radicales dos a dos desde ambos extremos alfabéticamente:
-            for (int i = 0; i < radicalNames.size() && !corrected; i++)
-                corrected = correctChainOrientationBy(radicalNames.get(i).compareTo(reversedRadicalNames.get(i)));
+            for (int i = 0; i < radicals.size() && !corrected; i++) {
+                String radicalName = radicalNameParticleFor(radicals.get(i));
+                String reversedRadicalName = radicalNameParticleFor(reversedRadicals.get(i));
+
+                corrected = correctChainOrientationBy(radicalName.compareTo(reversedRadicalName));
+            }
         }
     }
 
@@ -328,15 +276,15 @@ public final class Simple extends Nomenclature implements OpenChain {
 
     // Naming:
 
-    private boolean isRedundantInName(Group group) {
-        if (group != Group.radical && !isBond(group) && new Substituent(group).getBondCount() == 3)
+    private static boolean isRedundantInNameIn(Group group, ChainView chain) {
+        if (group != Group.radical && !isBond(group) && Substituent.of(group).getBondCount() == 3)
             return true; // Terminal substituents are either in first carbon or both first and last
 
         switch (chain.getSize()) {
             case 1: // Like methanol
                 return true;
             case 2: // Like ethanol, ethene, or chloroethyne
-                return isBond(group) || (chain.getSubstituents().size() - chain.getAmountOf(Group.hydrogen) == 1);
+                return isBond(group) || (chain.getSubstituentCount() - chain.getAmountOf(Group.hydrogen) == 1);
             case 3: // It's propadiene
                 return group == Group.alkene && chain.getAmountOf(Group.alkene) == 2;
         }
@@ -344,15 +292,4 @@ public final class Simple extends Nomenclature implements OpenChain {
         return false;
     }
 
-    private String getSuffixNameFor(Group bond) { // TODO fix repeated code
-        String name = suffixNameParticleFor(bond);
-
-        List<Integer> indexes = chain.getIndexesOf(bond);
-
-        if (isRedundantInName(bond)) // The locators are unnecessary
-            return multiplierFor(indexes.size()) + name; // I.E. "dioico"
-
-        return new Locator(indexes, name).toString(); // I.E. "2-3-diona"
-    }
-
 }
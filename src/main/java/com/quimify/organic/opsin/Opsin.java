@@ -11,7 +11,7 @@ public class Opsin {
         if (!opsinSpanish.isPresent())
             return Optional.empty();
 
-        return Optional.of(new OpsinResult(opsinSpanish.getSmiles(), opsinSpanish.getCml()));
+        return Optional.of(new OpsinResult(opsinSpanish.getSmiles(), opsinSpanish::getCml));
     }
 
     public static Optional<OpsinResult> parseEnglishName(String name) {
@@ -20,7 +20,7 @@ public class Opsin {
         if (!opsinEnglish.isPresent())
             return Optional.empty();
 
-        return Optional.of(new OpsinResult(opsinEnglish.getSmiles(), opsinEnglish.getCml()));
+        return Optional.of(new OpsinResult(opsinEnglish.getSmiles(), opsinEnglish::getCml));
     }
 
 }
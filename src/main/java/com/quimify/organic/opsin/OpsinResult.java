@@ -1,16 +1,19 @@
 package com.quimify.organic.opsin;
 
+import java.util.function.Supplier;
+
 public class OpsinResult {
 
     // Scientific ways to describe a structure using text:
     private final String smiles; // Simplified Molecular Input Line Entry Specification
-    private final String cml; // Chemical Markup Language
+    private final Supplier<String> cmlWriter;
+    private volatile String cml; // Chemical Markup Language, only written if asked for
 
     // Constructor:
 
-    OpsinResult(String smiles, String cml) {
+    OpsinResult(String smiles, Supplier<String> cmlWriter) {
         this.smiles = smiles;
-        this.cml = cml;
+        this.cmlWriter = cmlWriter;
     }
 
     // Getters:
@@ -20,6 +23,9 @@ public class OpsinResult {
     }
 
     public String getCml() {
+        if (cml == null)
+            cml = cmlWriter.get(); // It's the same every time
+
         return cml;
     }
 